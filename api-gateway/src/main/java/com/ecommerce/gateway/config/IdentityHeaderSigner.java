@@ -0,0 +1,63 @@
+package com.ecommerce.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the internal identity headers the gateway forwards to downstream services,
+ * so services can trust the caller without parsing the JWT again. The signature covers the time it was
+ * issued, so services can reject a captured set of headers once it is older than a few seconds.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String ISSUED_AT_HEADER = "X-User-Issued-At";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityHeaderSigner(@Value("${gateway.identity.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance("HmacSHA256");
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Replaces any identity headers already present with signed values taken from the verified token.
+     */
+    public void applyTo(HttpHeaders headers, VerifiedToken token) {
+        String userId = token.getUserId() != null ? token.getUserId() : "";
+        String username = token.getSubject() != null ? token.getSubject() : "";
+        String role = token.getRole() != null ? token.getRole() : "";
+        String issuedAt = Long.toString(System.currentTimeMillis());
+
+        headers.set(USER_ID_HEADER, userId);
+        headers.set(USERNAME_HEADER, username);
+        headers.set(USER_ROLE_HEADER, role);
+        headers.set(ISSUED_AT_HEADER, issuedAt);
+        headers.set(SIGNATURE_HEADER, sign(userId, username, role, issuedAt));
+    }
+
+    public String sign(String userId, String username, String role, String issuedAt) {
+        String payload = userId + "\n" + username + "\n" + role + "\n" + issuedAt;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+}
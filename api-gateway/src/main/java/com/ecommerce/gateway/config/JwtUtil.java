@@ -1,6 +1,7 @@
 package com.ecommerce.gateway.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,34 +13,50 @@ import java.util.Date;
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
+    private final RevokedTokenStore revokedTokenStore;
+
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+                   VerifiedTokenCache tokenCache,
+                   RevokedTokenStore revokedTokenStore) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.tokenCache = tokenCache;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
-    public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public boolean isTokenExpired(String token) {
-        return extractAllClaims(token).getExpiration().before(new Date());
-    }
+    /**
+     * Returns the verified token, or null if the token is invalid, expired or revoked.
+     * Signature checks are only performed on a cache miss; the revocation check runs every time.
+     */
+    public VerifiedToken validate(String token) {
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            return revokedTokenStore.isRevoked(cached.getId()) ? null : cached;
+        }
 
-    public boolean validateToken(String token) {
+        Claims claims;
         try {
-            return !isTokenExpired(token);
+            claims = extractAllClaims(token);
         } catch (Exception e) {
-            return false;
+            return null;
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.before(new Date())) {
+            return null;
         }
-    }
 
-    public String extractUsername(String token) {
-        return extractAllClaims(token).getSubject();
+        VerifiedToken verified = VerifiedToken.of(claims);
+        tokenCache.put(token, verified);
+        return revokedTokenStore.isRevoked(verified.getId()) ? null : verified;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.gateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ids (jti) of revoked tokens. Lookups go through a Bloom filter first, so the common case of a token
+ * that was never revoked costs a few bit reads and no allocation; only a filter hit consults the exact set.
+ * <p>
+ * The filter has two generations that rotate every maxTokenLifetime, and the exact set drops ids whose
+ * token has expired, so nothing is kept longer than a revoked token could still be presented.
+ */
+@Component
+public class RevokedTokenStore {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final int bits;
+    private final int hashes;
+    private final long rotationMillis;
+    private final Counter bloomRejected;
+    private final Counter falsePositives;
+    private final Counter revokedHits;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long nextRotationMillis;
+
+    public RevokedTokenStore(@Value("${jwt.revocation.expected-insertions:100000}") int expectedInsertions,
+                             @Value("${jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                             @Value("${jwt.revocation.max-token-lifetime:24h}") Duration maxTokenLifetime,
+                             MeterRegistry meterRegistry) {
+        double ln2 = Math.log(2);
+        this.bits = (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * ln2));
+        this.rotationMillis = maxTokenLifetime.toMillis();
+        this.current = new BloomFilter(bits);
+        this.previous = new BloomFilter(bits);
+        this.nextRotationMillis = System.currentTimeMillis() + rotationMillis;
+
+        this.bloomRejected = meterRegistry.counter("gateway.jwt.revocation.lookups", "result", "bloom-negative");
+        this.falsePositives = meterRegistry.counter("gateway.jwt.revocation.lookups", "result", "false-positive");
+        this.revokedHits = meterRegistry.counter("gateway.jwt.revocation.lookups", "result", "revoked");
+        Gauge.builder("gateway.jwt.revocation.size", revoked, Map::size).register(meterRegistry);
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        rotateIfDue();
+        revoked.put(jti, expiresAtMillis);
+        current.add(jti, hashes);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        rotateIfDue();
+        if (!current.mightContain(jti, hashes) && !previous.mightContain(jti, hashes)) {
+            bloomRejected.increment();
+            return false;
+        }
+        if (!revoked.containsKey(jti)) {
+            falsePositives.increment();
+            return false;
+        }
+        revokedHits.increment();
+        return true;
+    }
+
+    private void rotateIfDue() {
+        if (System.currentTimeMillis() < nextRotationMillis) {
+            return;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now < nextRotationMillis) {
+                return;
+            }
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            // The old generation keeps answering while the new one is rebuilt from the ids still alive
+            previous = current;
+            BloomFilter next = new BloomFilter(bits);
+            for (String jti : revoked.keySet()) {
+                next.add(jti, hashes);
+            }
+            current = next;
+            nextRotationMillis = now + rotationMillis;
+        }
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+
+        private BloomFilter(int bits) {
+            this.words = new AtomicLongArray((bits + 63) >>> 6);
+            this.bits = words.length() << 6;
+        }
+
+        void add(String value, int hashes) {
+            int h1 = value.hashCode();
+            int h2 = secondaryHash(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value, int hashes) {
+            int h1 = value.hashCode();
+            int h2 = secondaryHash(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // FNV-1a over the chars, forced odd so successive probes never collapse onto one bit
+        private static int secondaryHash(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.gateway.config;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * The parts of a verified JWT the gateway routes on. Immutable, so one cached instance can be shared by
+ * every concurrent request presenting the same token.
+ */
+public final class VerifiedToken {
+
+    private final String id;
+    private final String subject;
+    private final String userId;
+    private final String role;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String id, String subject, String userId, String role, long expiresAtMillis) {
+        this.id = id;
+        this.subject = subject;
+        this.userId = userId;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    static VerifiedToken of(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        return new VerifiedToken(claims.getId(), claims.getSubject(),
+                userId != null ? userId.toString() : null,
+                role != null ? role.toString() : null,
+                claims.getExpiration().getTime());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.gateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by the SHA-256 digest
+ * of the token so raw tokens are never held in memory. Entries are dropped once their exp passes.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    private final Map<TokenKey, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") int maxEntries,
+                              MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("gateway.jwt.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("gateway.jwt.cache.requests", "result", "miss");
+        Gauge.builder("gateway.jwt.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    public VerifiedToken get(String token) {
+        TokenKey key = TokenKey.of(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.token;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(TokenKey.of(token), new Entry(verified, verified.getExpiresAtMillis()));
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        // Still full of live tokens: drop an arbitrary tenth, they will simply be re-verified
+        Iterator<TokenKey> iterator = entries.keySet().iterator();
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final VerifiedToken token;
+        private final long expiresAtMillis;
+
+        private Entry(VerifiedToken token, long expiresAtMillis) {
+            this.token = token;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class TokenKey {
+        private final byte[] digest;
+        private final int hash;
+
+        private TokenKey(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        static TokenKey of(String token) {
+            return new TokenKey(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TokenKey other && Arrays.equals(digest, other.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
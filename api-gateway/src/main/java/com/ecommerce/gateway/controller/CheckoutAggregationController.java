@@ -0,0 +1,46 @@
+package com.ecommerce.gateway.controller;
+
+import com.ecommerce.gateway.config.IdentityHeaderSigner;
+import com.ecommerce.gateway.config.JwtUtil;
+import com.ecommerce.gateway.config.VerifiedToken;
+import com.ecommerce.gateway.service.CheckoutAggregationService;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/checkout")
+public class CheckoutAggregationController {
+
+    private final CheckoutAggregationService aggregationService;
+    private final JwtUtil jwtUtil;
+    private final IdentityHeaderSigner identityHeaderSigner;
+
+    public CheckoutAggregationController(CheckoutAggregationService aggregationService,
+                                         JwtUtil jwtUtil,
+                                         IdentityHeaderSigner identityHeaderSigner) {
+        this.aggregationService = aggregationService;
+        this.jwtUtil = jwtUtil;
+        this.identityHeaderSigner = identityHeaderSigner;
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<ObjectNode>> getCheckout(@PathVariable Long userId,
+                                                        @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        VerifiedToken token = jwtUtil.validate(authHeader.substring(7));
+        if (token == null) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+        }
+
+        HttpHeaders identityHeaders = new HttpHeaders();
+        identityHeaderSigner.applyTo(identityHeaders, token);
+        return aggregationService.getCheckout(userId, identityHeaders);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.gateway.dto;
+
+public class TokenRevokedEvent {
+
+    private String jti;
+    private Long expiresAt;
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
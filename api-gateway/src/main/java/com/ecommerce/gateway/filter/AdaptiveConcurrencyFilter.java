@@ -0,0 +1,177 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-route adaptive concurrency limit. The limit follows AIMD: it grows by one while the route is busy
+ * and fast, and is cut by backoffRatio whenever a call is slower than latencyThreshold or fails with 5xx.
+ * Requests over the limit are shed immediately with 503 instead of queueing on a slow downstream.
+ */
+@Component
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public AdaptiveConcurrencyFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        AimdLimiter limiter = new AimdLimiter(config);
+
+        Counter shed = meterRegistry.counter("gateway.concurrency.shed", "route", routeId);
+        Gauge.builder("gateway.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, AimdLimiter::getInFlight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                shed.increment();
+                exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                return exchange.getResponse().setComplete();
+            }
+
+            long start = System.nanoTime();
+            int inFlightAtStart = limiter.getInFlight();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        limiter.release();
+                        if (signal == SignalType.CANCEL) {
+                            return;
+                        }
+                        HttpStatusCode status = exchange.getResponse().getStatusCode();
+                        boolean failed = signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError());
+                        limiter.onSample(System.nanoTime() - start, failed, inFlightAtStart);
+                    });
+        };
+    }
+
+    private static final class AimdLimiter {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final int minLimit;
+        private final int maxLimit;
+        private final double backoffRatio;
+        private final long latencyThresholdNanos;
+        private volatile double limit;
+
+        private AimdLimiter(Config config) {
+            this.minLimit = config.getMinLimit();
+            this.maxLimit = config.getMaxLimit();
+            this.backoffRatio = config.getBackoffRatio();
+            this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+            this.limit = config.getInitialLimit();
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= (int) limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            inFlight.decrementAndGet();
+        }
+
+        synchronized void onSample(long latencyNanos, boolean failed, int inFlightAtStart) {
+            if (failed || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightAtStart * 2 >= limit) {
+                // Only grow while the current limit is actually being used
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+
+        double getLimit() {
+            return limit;
+        }
+
+        int getInFlight() {
+            return inFlight.get();
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public int getInitialLimit() {
+            return initialLimit;
+        }
+
+        public void setInitialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public Duration getLatencyThreshold() {
+            return latencyThreshold;
+        }
+
+        public void setLatencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+        }
+    }
+}
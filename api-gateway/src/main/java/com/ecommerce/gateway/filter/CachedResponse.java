@@ -0,0 +1,54 @@
+package com.ecommerce.gateway.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fully buffered upstream response that can be replayed to any number of clients.
+ */
+public class CachedResponse {
+
+    private static final List<String> EXCLUDED_HEADERS = List.of(
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.CONTENT_LENGTH, HttpHeaders.SET_COOKIE);
+
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = new HttpHeaders();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (EXCLUDED_HEADERS.stream().noneMatch(header.getKey()::equalsIgnoreCase)) {
+                this.headers.addAll(header.getKey(), header.getValue());
+            }
+        }
+        this.body = body;
+    }
+
+    public HttpStatusCode getStatus() {
+        return status;
+    }
+
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
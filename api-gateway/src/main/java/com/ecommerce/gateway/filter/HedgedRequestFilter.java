@@ -0,0 +1,308 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hedged requests for idempotent GETs on lb:// routes. The request goes to one instance from discovery;
+ * if it has not answered within the observed latency percentile, the same request goes to a second instance
+ * and whichever answers first wins. Hedges are capped at maxHedgeRatio of the route's requests.
+ * <p>
+ * This filter performs the upstream call itself, so it must be the last filter on the route. Headers go
+ * through the gateway's HttpHeadersFilter chain (X-Forwarded-*, hop-by-hop removal) exactly as they would
+ * on the routing filter, and every attempt is bounded by responseTimeout. Each response is buffered before
+ * it is written, so maxResponseSize must cover the largest body the route returns, at least the response
+ * cache's maxEntrySize.
+ */
+@Component
+public class HedgedRequestFilter extends AbstractGatewayFilterFactory<HedgedRequestFilter.Config> {
+
+    private static final long BUDGET_UNIT = 1000;
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient.Builder webClientBuilder;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+    private final MeterRegistry meterRegistry;
+    private volatile List<HttpHeadersFilter> headersFilters;
+
+    public HedgedRequestFilter(ReactiveDiscoveryClient discoveryClient,
+                               WebClient.Builder webClientBuilder,
+                               ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                               MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.discoveryClient = discoveryClient;
+        this.webClientBuilder = webClientBuilder;
+        this.headersFiltersProvider = headersFiltersProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        LatencyTracker latencies = new LatencyTracker(config.getSampleSize());
+        AtomicLong budget = new AtomicLong();
+        long budgetPerRequest = (long) (config.getMaxHedgeRatio() * BUDGET_UNIT);
+        WebClient webClient = webClientBuilder.clone()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) config.getMaxResponseSize().toBytes()))
+                .build();
+
+        Counter requests = meterRegistry.counter("gateway.hedging.requests", "route", routeId);
+        Counter hedgesSent = meterRegistry.counter("gateway.hedging.hedges", "route", routeId, "result", "sent");
+        Counter hedgesSuppressed = meterRegistry.counter("gateway.hedging.hedges", "route", routeId, "result", "suppressed");
+        Counter primaryWins = meterRegistry.counter("gateway.hedging.wins", "route", routeId, "winner", "primary");
+        Counter hedgeWins = meterRegistry.counter("gateway.hedging.wins", "route", routeId, "winner", "hedge");
+
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            if (exchange.getRequest().getMethod() != HttpMethod.GET || route == null
+                    || !"lb".equals(route.getUri().getScheme())) {
+                return chain.filter(exchange);
+            }
+
+            return discoveryClient.getInstances(route.getUri().getHost()).collectList().flatMap(instances -> {
+                if (instances.size() < 2) {
+                    return chain.filter(exchange);
+                }
+
+                requests.increment();
+                budget.updateAndGet(current -> Math.min(current + budgetPerRequest, BUDGET_UNIT * config.getMaxBudget()));
+
+                int first = ThreadLocalRandom.current().nextInt(instances.size());
+                int second = (first + 1 + ThreadLocalRandom.current().nextInt(instances.size() - 1)) % instances.size();
+                Duration hedgeDelay = latencies.delay(config.getPercentile(), config.getMinDelay(), config.getMaxDelay());
+                HttpHeaders headers = HttpHeadersFilter.filterRequest(getHeadersFilters(), exchange);
+                AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+                Mono<Attempt> primary = send(webClient, exchange, headers, instances.get(first), false, config, latencies)
+                        .doOnError(primaryError::set);
+                Mono<Attempt> hedge = Mono.delay(hedgeDelay).then(Mono.defer(() -> {
+                    long available = budget.get();
+                    if (available < BUDGET_UNIT || !budget.compareAndSet(available, available - BUDGET_UNIT)) {
+                        hedgesSuppressed.increment();
+                        return Mono.empty();
+                    }
+                    hedgesSent.increment();
+                    return send(webClient, exchange, headers, instances.get(second), true, config, latencies);
+                }));
+
+                return Mono.firstWithValue(primary, hedge)
+                        // Nothing answered: surface the primary's own failure, as an unhedged route would
+                        .onErrorMap(e -> primaryError.get() != null ? primaryError.get() : e)
+                        .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(
+                                HttpStatus.GATEWAY_TIMEOUT, "Upstream timed out", e))
+                        .flatMap(attempt -> {
+                            (attempt.hedge ? hedgeWins : primaryWins).increment();
+                            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, attempt.uri);
+                            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+                            return attempt.response.writeTo(exchange.getResponse());
+                        });
+            });
+        };
+    }
+
+    private List<HttpHeadersFilter> getHeadersFilters() {
+        if (headersFilters == null) {
+            headersFilters = headersFiltersProvider.getIfAvailable(List::of);
+        }
+        return headersFilters;
+    }
+
+    /**
+     * One upstream call. Its latency is recorded however it ends; an attempt cancelled because the other one
+     * won is recorded at the time it was cancelled, which is a lower bound of what it would have taken.
+     */
+    private Mono<Attempt> send(WebClient webClient, ServerWebExchange exchange, HttpHeaders requestHeaders,
+                               ServiceInstance instance, boolean hedge, Config config, LatencyTracker latencies) {
+        ServerHttpRequest request = exchange.getRequest();
+        URI uri = UriComponentsBuilder.fromUri(instance.getUri())
+                .replacePath(request.getURI().getRawPath())
+                .replaceQuery(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        boolean preserveHost = Boolean.TRUE.equals(
+                exchange.getAttribute(ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE));
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return webClient.get()
+                    .uri(uri)
+                    .headers(headers -> {
+                        headers.addAll(requestHeaders);
+                        if (!preserveHost) {
+                            headers.remove(HttpHeaders.HOST);
+                        }
+                    })
+                    .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                            .defaultIfEmpty(new byte[0])
+                            .map(body -> new Attempt(new CachedResponse(response.statusCode(),
+                                    HttpHeadersFilter.filter(getHeadersFilters(), response.headers().asHttpHeaders(),
+                                            exchange, HttpHeadersFilter.Type.RESPONSE), body),
+                                    uri, hedge)))
+                    .timeout(config.getResponseTimeout())
+                    .doFinally(signal -> latencies.record(System.nanoTime() - start));
+        });
+    }
+
+    private static final class Attempt {
+        private final CachedResponse response;
+        private final URI uri;
+        private final boolean hedge;
+
+        private Attempt(CachedResponse response, URI uri, boolean hedge) {
+            this.response = response;
+            this.uri = uri;
+            this.hedge = hedge;
+        }
+    }
+
+    /**
+     * Ring buffer of recent latencies; the percentile is recomputed every few samples, not on every read.
+     */
+    private static final class LatencyTracker {
+        private static final int RECOMPUTE_EVERY = 64;
+
+        private final long[] samples;
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long[] sorted = new long[0];
+
+        private LatencyTracker(int size) {
+            this.samples = new long[size];
+        }
+
+        void record(long latencyNanos) {
+            int n = count.getAndIncrement() & Integer.MAX_VALUE;
+            samples[n % samples.length] = latencyNanos;
+            if ((n + 1) % RECOMPUTE_EVERY == 0) {
+                long[] snapshot = Arrays.copyOf(samples, Math.min(n + 1, samples.length));
+                Arrays.sort(snapshot);
+                sorted = snapshot;
+            }
+        }
+
+        Duration delay(double percentile, Duration min, Duration max) {
+            long[] snapshot = sorted;
+            if (snapshot.length == 0) {
+                return max;
+            }
+            int index = (int) Math.min(snapshot.length - 1, Math.ceil(percentile / 100.0 * snapshot.length) - 1);
+            long nanos = snapshot[Math.max(0, index)];
+            return Duration.ofNanos(Math.max(min.toNanos(), Math.min(max.toNanos(), nanos)));
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private double percentile = 95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofSeconds(1);
+        private double maxHedgeRatio = 0.1;
+        private int maxBudget = 10;
+        private int sampleSize = 1024;
+        private Duration responseTimeout = Duration.ofSeconds(5);
+        private DataSize maxResponseSize = DataSize.ofMegabytes(10);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public double getPercentile() {
+            return percentile;
+        }
+
+        public void setPercentile(double percentile) {
+            this.percentile = percentile;
+        }
+
+        public Duration getMinDelay() {
+            return minDelay;
+        }
+
+        public void setMinDelay(Duration minDelay) {
+            this.minDelay = minDelay;
+        }
+
+        public Duration getMaxDelay() {
+            return maxDelay;
+        }
+
+        public void setMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+        }
+
+        public double getMaxHedgeRatio() {
+            return maxHedgeRatio;
+        }
+
+        public void setMaxHedgeRatio(double maxHedgeRatio) {
+            this.maxHedgeRatio = maxHedgeRatio;
+        }
+
+        public int getMaxBudget() {
+            return maxBudget;
+        }
+
+        public void setMaxBudget(int maxBudget) {
+            this.maxBudget = maxBudget;
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        public void setSampleSize(int sampleSize) {
+            this.sampleSize = sampleSize;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public DataSize getMaxResponseSize() {
+            return maxResponseSize;
+        }
+
+        public void setMaxResponseSize(DataSize maxResponseSize) {
+            this.maxResponseSize = maxResponseSize;
+        }
+    }
+}
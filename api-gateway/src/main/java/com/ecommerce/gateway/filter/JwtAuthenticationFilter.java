@@ -1,20 +1,27 @@
 package com.ecommerce.gateway.filter;
 
+import com.ecommerce.gateway.config.IdentityHeaderSigner;
 import com.ecommerce.gateway.config.JwtUtil;
+import com.ecommerce.gateway.config.VerifiedToken;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
+    public static final String TOKEN_ATTRIBUTE = JwtAuthenticationFilter.class.getName() + ".token";
+
     private final JwtUtil jwtUtil;
+    private final IdentityHeaderSigner identityHeaderSigner;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, IdentityHeaderSigner identityHeaderSigner) {
         super(Config.class);
         this.jwtUtil = jwtUtil;
+        this.identityHeaderSigner = identityHeaderSigner;
     }
 
     @Override
@@ -28,16 +35,38 @@ public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAut
             }
 
             String token = authHeader.substring(7);
-            if (!jwtUtil.validateToken(token)) {
+            VerifiedToken verified = jwtUtil.validate(token);
+            if (verified == null) {
                 exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
                 return exchange.getResponse().setComplete();
             }
 
-            return chain.filter(exchange);
+            if (config.getRole() != null && !config.getRole().equals(verified.getRole())) {
+                exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+                return exchange.getResponse().setComplete();
+            }
+
+            // Downstream filters read the verified token instead of parsing it again
+            exchange.getAttributes().put(TOKEN_ATTRIBUTE, verified);
+
+            // Never trust identity headers supplied by the client
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> identityHeaderSigner.applyTo(headers, verified))
+                    .build();
+            return chain.filter(exchange.mutate().request(request).build());
         };
     }
 
     public static class Config {
-        // Configuration properties if needed
+        // Role the token must carry, e.g. ADMIN; any valid token passes when unset
+        private String role;
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(String role) {
+            this.role = role;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.gateway.filter;
+
+import com.ecommerce.gateway.config.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process token bucket rate limiter, one bucket per route and caller. The caller is the JWT subject
+ * when JwtAuthenticationFilter ran before this filter, otherwise the client IP.
+ * <p>
+ * Buckets use GCRA, so each one is a single lock-free AtomicLong holding the theoretical arrival time.
+ * A bucket whose arrival time is in the past is full again and can be dropped without changing behaviour.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final int SWEEP_INTERVAL = 4096;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        AtomicInteger requestsSinceSweep = new AtomicInteger();
+        AtomicBoolean sweeping = new AtomicBoolean();
+
+        long emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getReplenishRate());
+        long burstToleranceNanos = emissionIntervalNanos * config.getBurstCapacity();
+
+        Counter allowed = meterRegistry.counter("gateway.ratelimit.requests", "route", routeId, "result", "allowed");
+        Counter rejected = meterRegistry.counter("gateway.ratelimit.requests", "route", routeId, "result", "rejected");
+        Gauge.builder("gateway.ratelimit.buckets", buckets, Map::size)
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            long now = System.nanoTime();
+            AtomicLong bucket = buckets.computeIfAbsent(resolveKey(exchange), key -> new AtomicLong(now));
+            long waitNanos = tryAcquire(bucket, now, emissionIntervalNanos, burstToleranceNanos);
+
+            if (requestsSinceSweep.incrementAndGet() >= SWEEP_INTERVAL || buckets.size() > config.getMaxBuckets()) {
+                sweep(buckets, now, config.getMaxBuckets(), requestsSinceSweep, sweeping);
+            }
+
+            if (waitNanos > 0) {
+                rejected.increment();
+                long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                return exchange.getResponse().setComplete();
+            }
+
+            allowed.increment();
+            return chain.filter(exchange);
+        };
+    }
+
+    private static long tryAcquire(AtomicLong bucket, long now, long emissionIntervalNanos, long burstToleranceNanos) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static void sweep(Map<String, AtomicLong> buckets, long now, int maxBuckets,
+                              AtomicInteger requestsSinceSweep, AtomicBoolean sweeping) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            requestsSinceSweep.set(0);
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+
+            // Too many active callers (e.g. a spray of source addresses): drop arbitrary buckets to stay bounded
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            int toRemove = buckets.size() - maxBuckets;
+            while (toRemove-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private static String resolveKey(ServerWebExchange exchange) {
+        VerifiedToken token = exchange.getAttribute(JwtAuthenticationFilter.TOKEN_ATTRIBUTE);
+        if (token != null && token.getSubject() != null) {
+            return "user:" + token.getSubject();
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress != null && remoteAddress.getAddress() != null) {
+            return "ip:" + remoteAddress.getAddress().getHostAddress();
+        }
+        return "anonymous";
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private int maxBuckets = 100000;
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public double getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(double replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+    }
+}
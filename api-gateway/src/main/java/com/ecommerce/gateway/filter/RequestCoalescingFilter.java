@@ -0,0 +1,139 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight for identical concurrent GETs: the first request goes upstream,
+ * every identical request that arrives while it is in flight waits for and replays its response.
+ * Only successful and 304 responses are shared. After a leader error, an unshareable response or a wait
+ * longer than maxWait, a follower goes upstream on its own.
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        Map<String, Sinks.One<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+        Counter leaders = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", "leader");
+        Counter followers = meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "role", "follower");
+        Gauge.builder("gateway.coalescing.ratio", () -> {
+                    double total = leaders.count() + followers.count();
+                    return total == 0 ? 0 : followers.count() / total;
+                })
+                .tag("route", routeId)
+                .description("Share of requests served from another in-flight upstream call")
+                .register(meterRegistry);
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+                return chain.filter(exchange);
+            }
+
+            String key = request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+            Sinks.One<CachedResponse> sink = Sinks.one();
+            Sinks.One<CachedResponse> existing = inFlight.putIfAbsent(key, sink);
+
+            if (existing != null) {
+                followers.increment();
+                // An empty result means the leader could not share its response, so go upstream ourselves
+                return existing.asMono()
+                        .timeout(config.getMaxWait(), Mono.empty())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(response -> response.isPresent()
+                                ? response.get().writeTo(exchange.getResponse())
+                                : chain.filter(exchange));
+            }
+
+            leaders.increment();
+            ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (getDelegate().getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        inFlight.remove(key, sink);
+                        if (isShareable(getDelegate().getStatusCode())) {
+                            sink.tryEmitValue(new CachedResponse(getDelegate().getStatusCode(),
+                                    getDelegate().getHeaders(), bytes));
+                        } else {
+                            sink.tryEmitEmpty();
+                        }
+                        return getDelegate().writeWith(Mono.just(getDelegate().bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+
+            return chain.filter(exchange.mutate().response(decorated).build())
+                    .doFinally(signal -> {
+                        inFlight.remove(key, sink);
+                        sink.tryEmitEmpty();
+                    });
+        };
+    }
+
+    private static boolean isShareable(HttpStatusCode status) {
+        return status != null && (status.is2xxSuccessful() || status.value() == HttpStatus.NOT_MODIFIED.value());
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+    }
+}
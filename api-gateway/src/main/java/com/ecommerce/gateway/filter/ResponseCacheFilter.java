@@ -0,0 +1,271 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches successful GET responses per route in memory, tags them with a strong ETag
+ * and answers matching If-None-Match requests with 304 without calling the upstream service.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        RouteCache cache = new RouteCache(config.getMaxEntries(), config.getMaxSize().toBytes(), meterRegistry, routeId);
+        if (caches.put(routeId, cache) == null) {
+            Gauge.builder("gateway.response.cache.entries", caches, c -> c.get(routeId).entryCount())
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.response.cache.size", caches, c -> c.get(routeId).sizeInBytes())
+                    .tag("route", routeId)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+
+        Counter hits = meterRegistry.counter("gateway.response.cache.requests", "route", routeId, "result", "hit");
+        Counter notModified = meterRegistry.counter("gateway.response.cache.requests", "route", routeId, "result", "not_modified");
+        Counter misses = meterRegistry.counter("gateway.response.cache.requests", "route", routeId, "result", "miss");
+        Counter bytesServed = meterRegistry.counter("gateway.response.cache.served.bytes", "route", routeId);
+        long ttlNanos = config.getTtl().toNanos();
+        long maxEntryBytes = config.getMaxEntrySize().toBytes();
+
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
+                return chain.filter(exchange);
+            }
+
+            String key = request.getURI().getRawPath()
+                    + (request.getURI().getRawQuery() != null ? "?" + request.getURI().getRawQuery() : "");
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+
+            CacheEntry entry = cache.get(key);
+            if (entry != null) {
+                if (etagMatches(ifNoneMatch, entry.etag)) {
+                    notModified.increment();
+                    return writeNotModified(exchange.getResponse(), entry.etag);
+                }
+                hits.increment();
+                bytesServed.increment(entry.response.getBody().length);
+                return entry.response.writeTo(exchange.getResponse());
+            }
+
+            misses.increment();
+            ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (!isCacheable(getDelegate())) {
+                        return super.writeWith(body);
+                    }
+                    return DataBufferUtils.join(body).flatMap(joined -> {
+                        byte[] bytes = new byte[joined.readableByteCount()];
+                        joined.read(bytes);
+                        DataBufferUtils.release(joined);
+
+                        String etag = strongEtag(bytes);
+                        getDelegate().getHeaders().setETag(etag);
+                        if (bytes.length <= maxEntryBytes) {
+                            CachedResponse response = new CachedResponse(
+                                    getDelegate().getStatusCode(), getDelegate().getHeaders(), bytes);
+                            cache.put(key, new CacheEntry(response, etag, System.nanoTime() + ttlNanos));
+                        }
+
+                        if (etagMatches(ifNoneMatch, etag)) {
+                            return writeNotModified(getDelegate(), etag);
+                        }
+                        return getDelegate().writeWith(Mono.just(getDelegate().bufferFactory().wrap(bytes)));
+                    });
+                }
+            };
+            return chain.filter(exchange.mutate().response(decorated).build());
+        };
+    }
+
+    private static boolean isCacheable(ServerHttpResponse response) {
+        if (!HttpStatus.OK.equals(response.getStatusCode()) || response.getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+            return false;
+        }
+        String cacheControl = response.getHeaders().getCacheControl();
+        return cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private"));
+    }
+
+    private static Mono<Void> writeNotModified(ServerHttpResponse response, String etag) {
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().setETag(etag);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        return response.setComplete();
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String strongEtag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final CachedResponse response;
+        private final String etag;
+        private final long expiresAtNanos;
+
+        private CacheEntry(CachedResponse response, String etag, long expiresAtNanos) {
+            this.response = response;
+            this.etag = etag;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    /**
+     * LRU map bounded by both entry count and total body size.
+     */
+    private static final class RouteCache {
+        private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int maxEntries;
+        private final long maxBytes;
+        private final Counter evictions;
+        private long bytes;
+
+        private RouteCache(int maxEntries, long maxBytes, MeterRegistry meterRegistry, String routeId) {
+            this.maxEntries = maxEntries;
+            this.maxBytes = maxBytes;
+            this.evictions = meterRegistry.counter("gateway.response.cache.evictions", "route", routeId);
+        }
+
+        synchronized CacheEntry get(String key) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos - System.nanoTime() <= 0) {
+                remove(key);
+                return null;
+            }
+            return entry;
+        }
+
+        synchronized void put(String key, CacheEntry entry) {
+            remove(key);
+            entries.put(key, entry);
+            bytes += entry.response.getBody().length;
+
+            Iterator<CacheEntry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().response.getBody().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+
+        private void remove(String key) {
+            CacheEntry removed = entries.remove(key);
+            if (removed != null) {
+                bytes -= removed.response.getBody().length;
+            }
+        }
+
+        synchronized int entryCount() {
+            return entries.size();
+        }
+
+        synchronized long sizeInBytes() {
+            return bytes;
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration ttl = Duration.ofSeconds(30);
+        private int maxEntries = 10000;
+        private DataSize maxSize = DataSize.ofMegabytes(64);
+        private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxEntrySize() {
+            return maxEntrySize;
+        }
+
+        public void setMaxEntrySize(DataSize maxEntrySize) {
+            this.maxEntrySize = maxEntrySize;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.ecommerce.gateway.filter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records a latency histogram per route, upstream instance and status class, plus in-flight gauges and
+ * request/response byte counters per route. Status codes are reduced to their class and only the first
+ * maxInstances upstream instances get their own tag, so the number of series stays bounded. Instances that
+ * leave discovery give their slot and their series back, so restarts and scale events do not use it up.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private static final String OTHER = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final int maxInstances;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> knownInstances = ConcurrentHashMap.newKeySet();
+
+    public RouteMetricsFilter(MeterRegistry meterRegistry,
+                              ReactiveDiscoveryClient discoveryClient,
+                              @Value("${gateway.metrics.max-instances:100}") int maxInstances) {
+        this.meterRegistry = meterRegistry;
+        this.discoveryClient = discoveryClient;
+        this.maxInstances = maxInstances;
+    }
+
+    /**
+     * Forgets tagged instances that are no longer registered, and removes their series. The discovery client
+     * publishes a heartbeat after every registry refresh.
+     */
+    @EventListener(HeartbeatEvent.class)
+    public void pruneInstances() {
+        discoveryClient.getServices()
+                .flatMap(discoveryClient::getInstances)
+                .map(instance -> instance.getHost() + ":" + instance.getPort())
+                .collect(Collectors.toSet())
+                .subscribe(registered -> {
+                    for (String instance : knownInstances) {
+                        if (!registered.contains(instance) && knownInstances.remove(instance)) {
+                            meterRegistry.find("gateway.route.requests").tag("instance", instance).meters()
+                                    .forEach(meterRegistry::remove);
+                        }
+                    }
+                }, error -> System.err.println("Failed to prune route metric instances: " + error.getMessage()));
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unmatched";
+
+        AtomicInteger routeInFlight = inFlight.computeIfAbsent(routeId, id -> {
+            AtomicInteger counter = new AtomicInteger();
+            Gauge.builder("gateway.route.in.flight", counter, AtomicInteger::get)
+                    .tag("route", id)
+                    .register(meterRegistry);
+            return counter;
+        });
+
+        long requestBytes = exchange.getRequest().getHeaders().getContentLength();
+        if (requestBytes > 0) {
+            meterRegistry.counter("gateway.route.request.bytes", "route", routeId).increment(requestBytes);
+        }
+
+        AtomicLong responseBytes = new AtomicLong();
+        ServerHttpResponseDecorator countingResponse = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return super.writeWith(Flux.from(body).doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount())));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return super.writeAndFlushWith(Flux.from(body).map(part -> Flux.from(part)
+                        .doOnNext(buffer -> responseBytes.addAndGet(buffer.readableByteCount()))));
+            }
+        };
+
+        routeInFlight.incrementAndGet();
+        long start = System.nanoTime();
+        return chain.filter(exchange.mutate().response(countingResponse).build())
+                .doFinally(signal -> {
+                    routeInFlight.decrementAndGet();
+                    Timer.builder("gateway.route.requests")
+                            .tag("route", routeId)
+                            .tag("instance", instanceTag(exchange))
+                            .tag("status", statusTag(exchange.getResponse().getStatusCode(), signal))
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofMillis(1))
+                            .maximumExpectedValue(Duration.ofSeconds(30))
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    meterRegistry.counter("gateway.route.response.bytes", "route", routeId).increment(responseBytes.get());
+                });
+    }
+
+    private String instanceTag(ServerWebExchange exchange) {
+        URI url = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getHost() == null) {
+            return "none";
+        }
+        String instance = url.getHost() + ":" + url.getPort();
+        if (knownInstances.contains(instance)) {
+            return instance;
+        }
+        if (knownInstances.size() < maxInstances && knownInstances.add(instance)) {
+            return instance;
+        }
+        return OTHER;
+    }
+
+    private static String statusTag(HttpStatusCode status, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return "CANCELLED";
+        }
+        if (signal == SignalType.ON_ERROR && status == null) {
+            return "ERROR";
+        }
+        return status != null ? (status.value() / 100) + "xx" : "UNKNOWN";
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+}
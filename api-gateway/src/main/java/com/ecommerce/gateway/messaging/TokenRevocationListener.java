@@ -0,0 +1,27 @@
+package com.ecommerce.gateway.messaging;
+
+import com.ecommerce.gateway.config.RevokedTokenStore;
+import com.ecommerce.gateway.dto.TokenRevokedEvent;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TokenRevocationListener {
+
+    private final RevokedTokenStore revokedTokenStore;
+
+    public TokenRevocationListener(RevokedTokenStore revokedTokenStore) {
+        this.revokedTokenStore = revokedTokenStore;
+    }
+
+    // Every gateway instance needs every revocation, so each one consumes with its own group
+    // and replays the retained topic on startup.
+    @KafkaListener(topics = "token-revoked", groupId = "api-gateway-${random.uuid}")
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        try {
+            revokedTokenStore.revoke(event.getJti(), event.getExpiresAt() != null ? event.getExpiresAt() : 0L);
+        } catch (Exception e) {
+            System.err.println("Failed to record revoked token: " + event.getJti());
+        }
+    }
+}
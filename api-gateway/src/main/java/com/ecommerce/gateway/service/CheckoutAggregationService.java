@@ -0,0 +1,173 @@
+package com.ecommerce.gateway.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Builds the checkout page document in one call: the cart first, then one batch lookup for the products
+ * of all cart lines, running at the same time as the inventory calls for every line. The two are merged by
+ * product id once both have finished. Each leg has its own timeout; a failed
+ * product or inventory leg leaves a null in the document and an entry in "errors" instead of failing the page.
+ */
+@Service
+public class CheckoutAggregationService {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final Duration cartTimeout;
+    private final Duration productTimeout;
+    private final Duration inventoryTimeout;
+
+    public CheckoutAggregationService(WebClient.Builder webClientBuilder,
+                                      ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                                      ObjectMapper objectMapper,
+                                      @Value("${aggregation.checkout.cart-timeout:2s}") Duration cartTimeout,
+                                      @Value("${aggregation.checkout.product-timeout:1s}") Duration productTimeout,
+                                      @Value("${aggregation.checkout.inventory-timeout:1s}") Duration inventoryTimeout) {
+        this.webClient = webClientBuilder.filter(loadBalancerFunction).build();
+        this.objectMapper = objectMapper;
+        this.cartTimeout = cartTimeout;
+        this.productTimeout = productTimeout;
+        this.inventoryTimeout = inventoryTimeout;
+    }
+
+    public Mono<ResponseEntity<ObjectNode>> getCheckout(Long userId, HttpHeaders identityHeaders) {
+        Queue<ObjectNode> errors = new ConcurrentLinkedQueue<>();
+
+        return fetch("http://cart-service/carts/" + userId, identityHeaders)
+                .timeout(cartTimeout)
+                .flatMap(cart -> {
+                    JsonNode items = cart.path("items");
+                    Mono<List<Optional<JsonNode>>> inventories = Flux.fromIterable(items)
+                            .flatMapSequential(item -> fetchInventory(item.path("productId").asLong(),
+                                    identityHeaders, errors))
+                            .collectList();
+
+                    return Mono.zip(fetchProducts(items, identityHeaders, errors), inventories)
+                            .map(legs -> {
+                                ObjectNode document = objectMapper.createObjectNode();
+                                document.put("userId", userId);
+                                document.set("cart", cart);
+                                ArrayNode lines = document.putArray("items");
+                                for (int i = 0; i < items.size(); i++) {
+                                    lines.add(line(items.get(i), legs.getT1(), legs.getT2().get(i)));
+                                }
+                                document.putArray("errors").addAll(errors);
+                                document.put("complete", errors.isEmpty());
+                                return ResponseEntity.ok(document);
+                            });
+                })
+                .onErrorResume(e -> {
+                    // Without the cart there is nothing to aggregate
+                    ObjectNode document = objectMapper.createObjectNode();
+                    document.put("userId", userId);
+                    document.putArray("errors").add(error("cart", userId, e));
+                    document.put("complete", false);
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(document));
+                });
+    }
+
+    /**
+     * Products of all cart lines by id, from one batch call. Lines whose product is missing get an error entry.
+     */
+    private Mono<Map<Long, JsonNode>> fetchProducts(JsonNode items, HttpHeaders identityHeaders,
+                                                    Queue<ObjectNode> errors) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.path("productId").asLong()));
+        if (productIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        ObjectNode request = objectMapper.createObjectNode();
+        ArrayNode ids = request.putArray("productIds");
+        productIds.forEach(ids::add);
+        Mono<JsonNode> call = webClient.post()
+                .uri("http://product-service/products/batch")
+                .headers(headers -> headers.addAll(identityHeaders))
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+
+        return call.timeout(productTimeout)
+                .map(response -> {
+                    Map<Long, JsonNode> products = new HashMap<>();
+                    response.forEach(product -> products.put(product.path("id").asLong(), product));
+                    productIds.stream()
+                            .filter(id -> !products.containsKey(id))
+                            .forEach(id -> errors.add(error("product", id, "Product not found")));
+                    return products;
+                })
+                .onErrorResume(e -> {
+                    productIds.forEach(id -> errors.add(error("product", id, e)));
+                    return Mono.just(Map.of());
+                });
+    }
+
+    private Mono<Optional<JsonNode>> fetchInventory(long productId, HttpHeaders identityHeaders,
+                                                    Queue<ObjectNode> errors) {
+        return leg("inventory", productId,
+                fetch("http://inventory-service/inventory/" + productId, identityHeaders), inventoryTimeout, errors);
+    }
+
+    private ObjectNode line(JsonNode item, Map<Long, JsonNode> products, Optional<JsonNode> inventory) {
+        long productId = item.path("productId").asLong();
+        ObjectNode line = objectMapper.createObjectNode();
+        line.put("productId", productId);
+        line.set("quantity", item.path("quantity"));
+        line.set("product", products.get(productId));
+        line.set("inventory", inventory.orElse(null));
+        return line;
+    }
+
+    private Mono<Optional<JsonNode>> leg(String name, long id, Mono<JsonNode> call, Duration timeout,
+                                         Queue<ObjectNode> errors) {
+        return call.timeout(timeout)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(e -> {
+                    errors.add(error(name, id, e));
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private Mono<JsonNode> fetch(String url, HttpHeaders identityHeaders) {
+        return webClient.get()
+                .uri(url)
+                .headers(headers -> headers.addAll(identityHeaders))
+                .retrieve()
+                .bodyToMono(JsonNode.class);
+    }
+
+    private ObjectNode error(String leg, long id, Throwable e) {
+        return error(leg, id, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+    }
+
+    private ObjectNode error(String leg, long id, String message) {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("leg", leg);
+        error.put("id", id);
+        error.put("message", message);
+        return error;
+    }
+}
@@ -0,0 +1,155 @@
+import com.ecommerce.gateway.config.JwtUtil;
+import com.ecommerce.gateway.config.RevokedTokenStore;
+import com.ecommerce.gateway.config.VerifiedToken;
+import com.ecommerce.gateway.config.VerifiedTokenCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Throughput of gateway token validation with and without the verified-token cache.
+ * <p>
+ * Args: [tokens=1000] [seconds=5] [threads=availableProcessors]. Each thread validates the tokens round robin,
+ * the way a gateway sees a fixed population of logged-in users. Besides the two JwtUtil configurations it
+ * measures the bare work behind each path: an HS256 check plus claims parse (what every miss pays) and the
+ * digest, map lookup and revocation check (what every hit pays).
+ */
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int tokenCount = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        String[] tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            tokens[i] = token("user" + i, i, System.currentTimeMillis() / 1000 + 3600);
+        }
+        System.out.printf("tokens=%d seconds=%d threads=%d cpus=%d java=%s%n", tokenCount, seconds, threads,
+                Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"));
+
+        try {
+            JwtUtil uncached = new JwtUtil(SECRET, new VerifiedTokenCache(0, new SimpleMeterRegistry()), revokedStore());
+            JwtUtil cached = new JwtUtil(SECRET, new VerifiedTokenCache(tokenCount * 2, new SimpleMeterRegistry()),
+                    revokedStore());
+            run("JwtUtil.validate, cache disabled", tokens, seconds, threads, token -> uncached.validate(token) != null);
+            run("JwtUtil.validate, cache enabled", tokens, seconds, threads, token -> cached.validate(token) != null);
+        } catch (RuntimeException | LinkageError e) {
+            System.out.println("JwtUtil runs skipped, jjwt-impl is not on the classpath: " + e);
+        }
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        ThreadLocal<Mac> macs = ThreadLocal.withInitial(() -> {
+            try {
+                return (Mac) mac.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        run("miss work: HS256 verify + claims parse", tokens, seconds, threads, token -> verifyHs256(macs.get(), token));
+
+        VerifiedTokenCache cache = new VerifiedTokenCache(tokenCount * 2, new SimpleMeterRegistry());
+        RevokedTokenStore revoked = revokedStore();
+        for (String token : tokens) {
+            cache.put(token, new VerifiedToken(UUID.randomUUID().toString(), "user", "1", "USER",
+                    System.currentTimeMillis() + 3_600_000));
+        }
+        run("hit work: SHA-256 + map lookup + revocation check", tokens, seconds, threads, token -> {
+            VerifiedToken verified = cache.get(token);
+            return verified != null && !revoked.isRevoked(verified.getId());
+        });
+    }
+
+    private static void run(String name, String[] tokens, int seconds, int threads, Predicate<String> validate)
+            throws InterruptedException {
+        measure(tokens, Math.max(1, seconds / 2), threads, validate);
+        long[] result = measure(tokens, seconds, threads, validate);
+        double opsPerSecond = result[0] / (result[1] / 1e9);
+        System.out.printf("%-52s %,12.0f ops/s %10.0f ns/op (per thread)%n", name, opsPerSecond,
+                threads * 1e9 / opsPerSecond);
+    }
+
+    private static long[] measure(String[] tokens, int seconds, int threads, Predicate<String> validate)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 7919;
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                int i = offset;
+                while (running.get()) {
+                    if (!validate.test(tokens[i++ % tokens.length])) {
+                        throw new IllegalStateException("token rejected");
+                    }
+                    count++;
+                }
+                operations.add(count);
+                done.countDown();
+            });
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+        return new long[]{operations.sum(), System.nanoTime() - start};
+    }
+
+    private static boolean verifyHs256(Mac mac, String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = token.indexOf('.', firstDot + 1);
+        byte[] expected = mac.doFinal(token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII));
+        byte[] actual = Base64.getUrlDecoder().decode(token.substring(secondDot + 1));
+        if (!MessageDigest.isEqual(expected, actual)) {
+            return false;
+        }
+        try {
+            MAPPER.readTree(Base64.getUrlDecoder().decode(token.substring(0, firstDot)));
+            JsonNode claims = MAPPER.readTree(Base64.getUrlDecoder().decode(token.substring(firstDot + 1, secondDot)));
+            return claims.path("exp").asLong() * 1000 > System.currentTimeMillis();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * An HS256 token shaped like the ones user-service issues.
+     */
+    private static String token(String subject, long userId, long expiresAtSeconds) throws Exception {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(MAPPER.writeValueAsBytes(MAPPER.createObjectNode()
+                .put("jti", UUID.randomUUID().toString())
+                .put("sub", subject)
+                .put("userId", userId)
+                .put("role", "USER")
+                .put("iat", expiresAtSeconds - 3600)
+                .put("exp", expiresAtSeconds)));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String signature = encoder.encodeToString(mac.doFinal((header + "." + payload).getBytes(StandardCharsets.US_ASCII)));
+        return header + "." + payload + "." + signature;
+    }
+
+    private static RevokedTokenStore revokedStore() {
+        return new RevokedTokenStore(100000, 0.001, Duration.ofHours(24), new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,179 @@
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.service.ProductPriceIndex;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * First page of the cheapest products in a category and price window: {@link ProductPriceIndex} against the
+ * equivalent SQL on an indexed table. The "+ facets" runs also count the window per category and price bucket,
+ * which is what a price-range request to the service costs.
+ * <p>
+ * Args: [products=200000] [seconds=5] [jdbcUrl user password]. Without a JDBC URL only the index is measured.
+ * The SQL side loads the same synthetic catalog into a scratch table, benchmark_price_range, with an index on
+ * (category, price, id), and runs the page query plus the count the index returns for free; the table is
+ * dropped afterwards. This is the best case for SQL. The service's own database fallback loads the matching
+ * entities and sorts them in memory, which is slower still.
+ */
+public class PriceRangeBenchmark {
+
+    private static final int CATEGORIES = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final BigDecimal[] PRICE_BUCKETS = {BigDecimal.valueOf(25), BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100), BigDecimal.valueOf(250), BigDecimal.valueOf(500), BigDecimal.valueOf(1000)};
+
+    public static void main(String[] args) throws Exception {
+        int productCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String jdbcUrl = args.length > 2 ? args[2] : null;
+        System.out.printf("products=%d seconds=%d cpus=%d java=%s%n", productCount, seconds,
+                Runtime.getRuntime().availableProcessors(), System.getProperty("java.version"));
+
+        List<ProductDTO> catalog = catalog(productCount);
+        ProductPriceIndex index = new ProductPriceIndex();
+        long buildStart = System.nanoTime();
+        index.onCatalogLoaded(catalog);
+        System.out.printf("index build: %d ms%n", (System.nanoTime() - buildStart) / 1_000_000);
+
+        run("price index, category", seconds, random -> index.range(category(random), min(random), max(random),
+                0, PAGE_SIZE).getProductIds().length);
+        run("price index, whole catalog", seconds, random -> index.range(null, min(random), max(random),
+                0, PAGE_SIZE).getProductIds().length);
+        run("price index + facets, category", seconds, random -> pageAndFacets(index, category(random),
+                min(random), max(random)));
+        run("price index + facets, whole catalog", seconds, random -> pageAndFacets(index, null,
+                min(random), max(random)));
+
+        if (jdbcUrl == null) {
+            System.out.println("SQL runs skipped, pass jdbcUrl user password to compare");
+            return;
+        }
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, args[3], args.length > 4 ? args[4] : "")) {
+            load(connection, catalog);
+            try (PreparedStatement page = connection.prepareStatement("SELECT id FROM benchmark_price_range "
+                    + "WHERE category = ? AND price BETWEEN ? AND ? ORDER BY price, id LIMIT " + PAGE_SIZE);
+                 PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) FROM benchmark_price_range "
+                         + "WHERE category = ? AND price BETWEEN ? AND ?")) {
+                run("SQL page + count, category", seconds, random -> {
+                    String category = category(random);
+                    BigDecimal min = min(random);
+                    BigDecimal max = max(random);
+                    return query(page, category, min, max) + query(count, category, min, max);
+                });
+            } finally {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE benchmark_price_range");
+                }
+            }
+        }
+    }
+
+    private interface Query {
+        int run(Random random) throws Exception;
+    }
+
+    private static void run(String name, int seconds, Query query) throws Exception {
+        Random random = new Random(42);
+        long sink = 0;
+        long warmupEnd = System.nanoTime() + Math.max(1, seconds / 2) * 1_000_000_000L;
+        while (System.nanoTime() < warmupEnd) {
+            sink += query.run(random);
+        }
+        long operations = 0;
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            sink += query.run(random);
+            operations++;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-36s %,12.0f queries/s %10.1f us/query (checksum %d)%n", name, operations / elapsed,
+                elapsed * 1e6 / operations, sink);
+    }
+
+    private static int pageAndFacets(ProductPriceIndex index, String category, BigDecimal min, BigDecimal max) {
+        ProductPriceIndex.RangeCounts counts = index.count(category, min, max, PRICE_BUCKETS);
+        return index.range(category, min, max, 0, PAGE_SIZE).getProductIds().length
+                + counts.getCategoryCounts().size() + (int) counts.getBucketCounts()[0];
+    }
+
+    private static List<ProductDTO> catalog(int productCount) {
+        Random random = new Random(7);
+        List<ProductDTO> catalog = new ArrayList<>(productCount);
+        for (long id = 1; id <= productCount; id++) {
+            ProductDTO product = new ProductDTO();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setCategory("category-" + random.nextInt(CATEGORIES));
+            product.setPrice(BigDecimal.valueOf(100 + random.nextInt(200_000), 2));
+            product.setStockQuantity(10);
+            product.setActive(random.nextInt(20) != 0);
+            catalog.add(product);
+        }
+        return catalog;
+    }
+
+    private static String category(Random random) {
+        return "category-" + random.nextInt(CATEGORIES);
+    }
+
+    private static BigDecimal min(Random random) {
+        return BigDecimal.valueOf(random.nextInt(1500));
+    }
+
+    private static BigDecimal max(Random random) {
+        return BigDecimal.valueOf(1500 + random.nextInt(500));
+    }
+
+    private static int query(PreparedStatement statement, String category, BigDecimal min, BigDecimal max)
+            throws SQLException {
+        statement.setString(1, category);
+        statement.setBigDecimal(2, min);
+        statement.setBigDecimal(3, max);
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void load(Connection connection, List<ProductDTO> catalog) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_price_range");
+            statement.execute("CREATE TABLE benchmark_price_range (id BIGINT PRIMARY KEY, "
+                    + "category VARCHAR(255) NOT NULL, price DECIMAL(10, 2) NOT NULL, "
+                    + "INDEX benchmark_price_range_category_price (category, price, id))");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO benchmark_price_range (id, category, price) VALUES (?, ?, ?)")) {
+            int batched = 0;
+            for (ProductDTO product : catalog) {
+                // The index only holds active products, so the table does too
+                if (!product.isActive()) {
+                    continue;
+                }
+                insert.setLong(1, product.getId());
+                insert.setString(2, product.getCategory());
+                insert.setBigDecimal(3, product.getPrice());
+                insert.addBatch();
+                if (++batched % 1000 == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Bulk import throughput against a running product-service, compared with creating products one
+# POST /products at a time.
+#   ./benchmarks/product-service/import-load.sh [rows=100000] [singleRows=1000] [baseUrl=http://localhost:8082]
+# Every run inserts real products; point it at a scratch database.
+set -euo pipefail
+
+ROWS="${1:-100000}"
+SINGLE_ROWS="${2:-1000}"
+BASE_URL="${3:-http://localhost:8082}"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+echo "rows=$ROWS singleRows=$SINGLE_ROWS baseUrl=$BASE_URL"
+
+# The same synthetic rows in both formats, 50 categories, plus a curl config for the one-by-one baseline
+python3 - "$ROWS" "$SINGLE_ROWS" "$BASE_URL" "$WORK" <<'PY'
+import json, random, sys, time
+rows, single_rows, base_url, work = int(sys.argv[1]), int(sys.argv[2]), sys.argv[3], sys.argv[4]
+random.seed(42)
+run = int(time.time())
+with open(f"{work}/products.ndjson", "w") as ndjson, open(f"{work}/products.csv", "w") as csv, \
+        open(f"{work}/single.curl", "w") as single:
+    csv.write("name,description,price,category,stockQuantity\n")
+    for i in range(rows):
+        product = {
+            "name": f"Import {run}-{i}",
+            "description": f"Load test product {i}",
+            "price": f"{random.randint(1, 2000)}.{random.randint(0, 99):02d}",
+            "category": f"category-{random.randrange(50)}",
+            "stockQuantity": random.randrange(500),
+        }
+        line = json.dumps(product)
+        ndjson.write(line + "\n")
+        csv.write(",".join(str(product[c]) for c in
+                           ("name", "description", "price", "category", "stockQuantity")) + "\n")
+        if i < single_rows:
+            product["name"] = f"Single {run}-{i}"
+            if i:
+                single.write("next\n")
+            single.write(f'url = "{base_url}/products"\nrequest = "POST"\n'
+                         f'header = "Content-Type: application/json"\n'
+                         f"data-binary = {json.dumps(json.dumps(product))}\noutput = \"/dev/null\"\n")
+PY
+
+run_import() {
+    local name="$1" content_type="$2" file="$3"
+    curl -sS --fail -X POST "$BASE_URL/products/import" -H "Content-Type: $content_type" \
+        --data-binary "@$file" -o "$WORK/response.json"
+    python3 - "$name" "$WORK/response.json" <<'PY'
+import json, sys
+response = json.load(open(sys.argv[2]))
+print(f"{sys.argv[1]:<28} {response['imported']:>8} rows {response['durationMillis']:>8} ms "
+      f"{response['rowsPerSecond']:>10.0f} rows/s  failed {response['failed']}")
+PY
+}
+
+run_import "import, NDJSON" application/x-ndjson "$WORK/products.ndjson"
+# The CSV rows repeat the NDJSON names; product names are not unique, so they import as new products
+run_import "import, CSV" text/csv "$WORK/products.csv"
+
+# Baseline: one request and one JPA insert per product, over a single kept-alive connection
+START=$(date +%s%N)
+curl -sS --fail -K "$WORK/single.curl"
+ELAPSED_MS=$(( ($(date +%s%N) - START) / 1000000 ))
+awk -v rows="$SINGLE_ROWS" -v ms="$ELAPSED_MS" 'BEGIN {
+    printf "%-28s %8d rows %8d ms %10.0f rows/s\n", "POST /products, one by one", rows, ms, rows * 1000 / (ms > 0 ? ms : 1)
+}'
@@ -0,0 +1,18 @@
+#!/usr/bin/env bash
+# Runs a single-file benchmark against a service's compiled classes and runtime dependencies.
+#   ./benchmarks/run.sh api-gateway JwtValidationBenchmark [args...]
+set -euo pipefail
+
+SERVICE="$1"
+BENCHMARK="$2"
+shift 2
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+CLASSPATH_FILE="$ROOT/$SERVICE/target/benchmark.classpath"
+
+mvn -B -q -f "$ROOT/$SERVICE/pom.xml" compile dependency:build-classpath \
+    -Dmdep.outputFile="$CLASSPATH_FILE" -Dmdep.includeScope=runtime
+
+exec java -Xms512m -Xmx512m \
+    -cp "$ROOT/$SERVICE/target/classes:$(cat "$CLASSPATH_FILE")" \
+    "$ROOT/benchmarks/$SERVICE/$BENCHMARK.java" "$@"
@@ -0,0 +1,115 @@
+import com.ecommerce.user.exception.PasswordHashingRejectedException;
+import com.ecommerce.user.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Login throughput of the password check: logins per second per core, and latency as seen by the callers.
+ * <p>
+ * Args: [strength=10] [seconds=10] [callers=16] [poolSize=cpus/2] [queueCapacity=64]. The callers stand in for
+ * request threads all logging in at once. The plain BCrypt run hashes on the callers themselves; the bounded
+ * run goes through {@link BoundedPasswordEncoder} with the pool the service would configure.
+ */
+public class PasswordHashingBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int strength = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int callers = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int poolSize = args.length > 3 ? Integer.parseInt(args[3]) : Math.max(1, cpus / 2);
+        int queueCapacity = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+        System.out.printf("strength=%d seconds=%d callers=%d poolSize=%d queueCapacity=%d cpus=%d java=%s%n",
+                strength, seconds, callers, poolSize, queueCapacity, cpus, System.getProperty("java.version"));
+
+        BCryptPasswordEncoder plain = new BCryptPasswordEncoder(strength);
+        String hash = plain.encode("correct horse battery staple");
+
+        run("BCrypt on caller threads", plain, hash, 1, callers, seconds, cpus);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(strength, poolSize, queueCapacity,
+                new SimpleMeterRegistry());
+        try {
+            run("BoundedPasswordEncoder", bounded, hash, 1, callers, seconds, cpus);
+        } finally {
+            bounded.destroy();
+        }
+    }
+
+    private static void run(String name, PasswordEncoder encoder, String hash, int warmupSeconds, int callers,
+                            int seconds, int cpus) throws InterruptedException {
+        measure(encoder, hash, callers, warmupSeconds);
+        Result result = measure(encoder, hash, callers, seconds);
+        double perSecond = result.logins / (result.elapsedNanos / 1e9);
+        System.out.printf("%-26s %8.1f logins/s %8.1f logins/s/core  rejected %5d  p50 %6.0f ms  p99 %6.0f ms%n",
+                name, perSecond, perSecond / cpus, result.rejected,
+                result.percentile(50) / 1e6, result.percentile(99) / 1e6);
+    }
+
+    private static Result measure(PasswordEncoder encoder, String hash, int callers, int seconds)
+            throws InterruptedException {
+        LongAdder rejected = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(callers);
+        long[][] latencies = new long[callers][];
+        long start = System.nanoTime();
+        for (int c = 0; c < callers; c++) {
+            int caller = c;
+            new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                while (running.get()) {
+                    long begin = System.nanoTime();
+                    try {
+                        if (!encoder.matches("correct horse battery staple", hash)) {
+                            throw new IllegalStateException("password rejected");
+                        }
+                    } catch (PasswordHashingRejectedException e) {
+                        rejected.increment();
+                        continue;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - begin;
+                }
+                latencies[caller] = Arrays.copyOf(samples, count);
+                done.countDown();
+            }).start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, rejected.sum(), elapsed);
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final long logins;
+        private final long rejected;
+        private final long elapsedNanos;
+
+        private Result(long[] sortedLatencies, long rejected, long elapsedNanos) {
+            this.sortedLatencies = sortedLatencies;
+            this.logins = sortedLatencies.length;
+            this.rejected = rejected;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))];
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.ecommerce.cart.client;
 
+import com.ecommerce.cart.dto.ProductBatchRequest;
 import com.ecommerce.cart.dto.ProductDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "product-service")
 public interface ProductClient {
 
+    /**
+     * Largest number of ids product-service accepts in one batch request.
+     */
+    int MAX_BATCH_SIZE = 500;
+
     @GetMapping("/products/{id}")
     ProductDTO getProductById(@PathVariable Long id);
-}
\ No newline at end of file
+
+    /**
+     * Products for the given ids in one call; ids that do not exist are left out of the result.
+     */
+    @PostMapping("/products/batch")
+    List<ProductDTO> getProductsByIds(@RequestBody ProductBatchRequest request);
+}
@@ -52,6 +52,13 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PostMapping("/{userId}/reprice")
+    @Operation(summary = "Refresh cart prices from the product catalog")
+    public ResponseEntity<CartDTO> repriceCart(@PathVariable Long userId) {
+        CartDTO cart = cartService.repriceCart(userId);
+        return ResponseEntity.ok(cart);
+    }
+
     @DeleteMapping("/{userId}/clear")
     @Operation(summary = "Clear entire cart")
     public ResponseEntity<Void> clearCart(@PathVariable Long userId) {
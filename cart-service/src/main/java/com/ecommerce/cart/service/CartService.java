@@ -4,12 +4,17 @@ import com.ecommerce.cart.client.ProductClient;
 import com.ecommerce.cart.dto.AddToCartRequest;
 import com.ecommerce.cart.dto.CartDTO;
 import com.ecommerce.cart.dto.CartItemDTO;
+import com.ecommerce.cart.dto.ProductBatchRequest;
+import com.ecommerce.cart.dto.ProductDTO;
 import com.ecommerce.cart.model.Cart;
 import com.ecommerce.cart.model.CartItem;
 import com.ecommerce.cart.repository.CartRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -97,6 +102,53 @@ public class CartService {
         return convertToDTO(savedCart);
     }
 
+    /**
+     * Refreshes name, price and image of every cart line from product-service in one batch call,
+     * and drops lines whose product no longer exists or is no longer active.
+     */
+    public CartDTO repriceCart(Long userId) {
+        Cart cart = cartRepository.findByUserId(userId)
+                .orElseThrow(() -> new RuntimeException("Cart not found"));
+        if (cart.getItems().isEmpty()) {
+            return convertToDTO(cart);
+        }
+
+        Map<Long, ProductDTO> products = getProducts(cart.getItems().stream()
+                .map(CartItem::getProductId)
+                .distinct()
+                .collect(Collectors.toList()));
+
+        cart.getItems().removeIf(item -> {
+            ProductDTO product = products.get(item.getProductId());
+            return product == null || !product.isActive();
+        });
+        for (CartItem item : cart.getItems()) {
+            ProductDTO product = products.get(item.getProductId());
+            item.setProductName(product.getName());
+            item.setPrice(product.getPrice());
+            item.setImageUrl(product.getImageUrl());
+        }
+        cart.calculateTotalPrice();
+
+        Cart savedCart = cartRepository.save(cart);
+        return convertToDTO(savedCart);
+    }
+
+    private Map<Long, ProductDTO> getProducts(List<Long> productIds) {
+        Map<Long, ProductDTO> products = new HashMap<>();
+        try {
+            for (int from = 0; from < productIds.size(); from += ProductClient.MAX_BATCH_SIZE) {
+                List<Long> chunk = productIds.subList(from, Math.min(from + ProductClient.MAX_BATCH_SIZE, productIds.size()));
+                for (ProductDTO product : productClient.getProductsByIds(new ProductBatchRequest(chunk))) {
+                    products.put(product.getId(), product);
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to fetch product details");
+        }
+        return products;
+    }
+
     public void clearCart(Long userId) {
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Cart not found"));
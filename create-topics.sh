@@ -2,7 +2,7 @@
 echo "Waiting for Kafka to start..."
 sleep 10
 
-TOPICS=("order-created" "order-confirmed" "order-cancelled" "payment-processed" "order-shipped")
+TOPICS=("order-created" "order-confirmed" "order-cancelled" "payment-processed" "order-shipped" "token-revoked" "user-registered" "user-invalidated" "product-changed")
 
 for TOPIC in "${TOPICS[@]}"
 do
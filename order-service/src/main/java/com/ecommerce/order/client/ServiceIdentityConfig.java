@@ -0,0 +1,46 @@
+package com.ecommerce.order.client;
+
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Feign configuration for calls to user-service internal endpoints. Each request carries the same signed
+ * identity headers the gateway adds, with the SERVICE role, which user-service requires on /users/internal/**.
+ * A service has no user id, so X-User-Id is left out and signed as empty.
+ * Not a @Configuration, so it only applies to the clients that name it.
+ */
+public class ServiceIdentityConfig {
+
+    static final String SERVICE_ROLE = "SERVICE";
+
+    @Bean
+    public RequestInterceptor serviceIdentityInterceptor(@Value("${spring.application.name}") String serviceName,
+                                                         @Value("${gateway.identity.secret}") String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        return template -> {
+            String issuedAt = Long.toString(System.currentTimeMillis());
+            template.header("X-User-Name", serviceName);
+            template.header("X-User-Role", SERVICE_ROLE);
+            template.header("X-User-Issued-At", issuedAt);
+            template.header("X-User-Signature", sign(key, "\n" + serviceName + "\n" + SERVICE_ROLE + "\n" + issuedAt));
+        };
+    }
+
+    private static String sign(SecretKeySpec key, String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
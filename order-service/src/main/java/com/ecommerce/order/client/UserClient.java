@@ -0,0 +1,16 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.dto.UserContactDTO;
+import com.ecommerce.order.dto.UserContactsRequest;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+@FeignClient(name = "user-service", configuration = ServiceIdentityConfig.class)
+public interface UserClient {
+
+    @PostMapping("/users/internal/contacts")
+    List<UserContactDTO> getContacts(@RequestBody UserContactsRequest request);
+}
@@ -8,6 +8,8 @@ import java.util.List;
 public class OrderEvent {
     private Long orderId;
     private Long userId;
+    private String userEmail;
+    private String userName;
     private List<OrderItem> items;
     private OrderStatus status;
 
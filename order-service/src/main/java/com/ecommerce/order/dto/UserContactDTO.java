@@ -0,0 +1,12 @@
+package com.ecommerce.order.dto;
+
+import lombok.Data;
+
+@Data
+public class UserContactDTO {
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+}
@@ -1,10 +1,13 @@
 package com.ecommerce.order.service;
 
 import com.ecommerce.order.client.InventoryClient;
+import com.ecommerce.order.client.UserClient;
 import com.ecommerce.order.dto.CreateOrderRequest;
 import com.ecommerce.order.dto.OrderDTO;
 import com.ecommerce.order.dto.OrderEvent;
 import com.ecommerce.order.dto.OrderItemDTO;
+import com.ecommerce.order.dto.UserContactDTO;
+import com.ecommerce.order.dto.UserContactsRequest;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
 import com.ecommerce.order.repository.OrderRepository;
@@ -23,13 +26,16 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final InventoryClient inventoryClient;
+    private final UserClient userClient;
 
     public OrderService(OrderRepository orderRepository,
                         KafkaTemplate<String, Object> kafkaTemplate,
-                        InventoryClient inventoryClient) {
+                        InventoryClient inventoryClient,
+                        UserClient userClient) {
         this.orderRepository = orderRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.inventoryClient = inventoryClient;
+        this.userClient = userClient;
     }
 
     public OrderDTO createOrder(CreateOrderRequest request) {
@@ -120,6 +126,7 @@ public class OrderService {
         event.setOrderId(order.getId());
         event.setUserId(order.getUserId());
         event.setStatus(convertStatus(order.getStatus()));
+        addContact(event);
 
         event.setItems(order.getItems().stream()
                 .map(item -> {
@@ -133,6 +140,23 @@ public class OrderService {
         return event;
     }
 
+    // Notifications are addressed from the event, so carry the email with it; an order event without one
+    // is still worth sending, so a failed lookup only leaves the contact fields empty
+    private void addContact(OrderEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        try {
+            List<UserContactDTO> contacts = userClient.getContacts(new UserContactsRequest(List.of(event.getUserId())));
+            if (!contacts.isEmpty()) {
+                event.setUserEmail(contacts.get(0).getEmail());
+                event.setUserName(contacts.get(0).getUsername());
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to look up contact for user: " + event.getUserId());
+        }
+    }
+
     private OrderEvent.OrderStatus convertStatus(Order.OrderStatus status) {
         return switch (status) {
             case CONFIRMED -> OrderEvent.OrderStatus.CONFIRMED;
@@ -1,32 +1,76 @@
 package com.ecommerce.product.controller;
 
+import com.ecommerce.product.dto.ProductBatchRequest;
+import com.ecommerce.product.dto.ProductCursorResponse;
 import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.dto.ProductImportResponse;
+import com.ecommerce.product.dto.ProductPageResponse;
+import com.ecommerce.product.dto.ProductSearchResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
+import com.ecommerce.product.service.ProductExportService;
+import com.ecommerce.product.service.ProductImportService;
 import com.ecommerce.product.service.ProductService;
+import com.ecommerce.product.service.ProductSort;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/products")
 @Tag(name = "Product Management", description = "APIs for product CRUD operations")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 16;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ProductExportService productExportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productExportService = productExportService;
     }
 
     @GetMapping
-    @Operation(summary = "Get all products")
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
-        return ResponseEntity.ok(products);
+    @Operation(summary = "List products, one keyset page at a time")
+    public ResponseEntity<ProductCursorResponse> getAllProducts(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size,
+                                                                @RequestParam(defaultValue = "id") String sort,
+                                                                @RequestParam(defaultValue = "asc") String direction) {
+        validatePage(0, size);
+        ProductCursorResponse response = withBadRequest(() ->
+                productService.getProducts(sortOf(sort), directionOf(direction), cursor, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Stream the catalog as newline-delimited JSON, optionally only products changed since a time")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime changedSince) {
+        StreamingResponseBody body = outputStream -> productExportService.exportProducts(changedSince, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -43,6 +87,28 @@ public class ProductController {
         return ResponseEntity.ok(createdProduct);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Get several products by ID in one call")
+    public ResponseEntity<List<ProductDTO>> getProductsByIds(@Valid @RequestBody ProductBatchRequest request) {
+        List<ProductDTO> products = productService.getProductsByIds(request.getProductIds());
+        return ResponseEntity.ok(products);
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Bulk import products from an NDJSON or CSV stream")
+    public ResponseEntity<ProductImportResponse> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                InputStream body) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(MediaType.parseMediaType(contentType).getSubtype());
+        try {
+            ProductImportResponse response = csv
+                    ? productImportService.importCsv(body)
+                    : productImportService.importNdjson(body);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update product")
     public ResponseEntity<ProductDTO> updateProduct(@PathVariable Long id,
@@ -59,25 +125,93 @@ public class ProductController {
     }
 
     @GetMapping("/category/{category}")
-    @Operation(summary = "Get products by category")
-    public ResponseEntity<List<ProductDTO>> getProductsByCategory(@PathVariable String category) {
-        List<ProductDTO> products = productService.getProductsByCategory(category);
-        return ResponseEntity.ok(products);
+    @Operation(summary = "List products in a category, one keyset page at a time")
+    public ResponseEntity<ProductCursorResponse> getProductsByCategory(@PathVariable String category,
+                                                                       @RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "20") int size,
+                                                                       @RequestParam(defaultValue = "id") String sort,
+                                                                       @RequestParam(defaultValue = "asc") String direction) {
+        validatePage(0, size);
+        ProductCursorResponse response = withBadRequest(() ->
+                productService.getProductsByCategory(category, sortOf(sort), directionOf(direction), cursor, size));
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search products by keyword")
-    public ResponseEntity<List<ProductDTO>> searchProducts(@RequestParam String keyword) {
-        List<ProductDTO> products = productService.searchProducts(keyword);
-        return ResponseEntity.ok(products);
+    @Operation(summary = "Search products by keyword, ranked by relevance unless a sort is given")
+    public ResponseEntity<ProductSearchResponse> searchProducts(@RequestParam String keyword,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size,
+                                                                @RequestParam(required = false) String sort,
+                                                                @RequestParam(defaultValue = "asc") String direction) {
+        validatePage(page, size);
+        ProductSearchResponse response = withBadRequest(() -> productService.searchProducts(keyword,
+                sort != null ? sortOf(sort) : null, directionOf(direction), page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/suggest")
+    @Operation(summary = "Type-ahead suggestions for product names and categories, most popular first")
+    public ResponseEntity<List<ProductSuggestion>> suggest(@RequestParam String prefix,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        List<ProductSuggestion> suggestions = productService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
     }
 
     @GetMapping("/price-range")
-    @Operation(summary = "Get products by price range")
-    public ResponseEntity<List<ProductDTO>> getProductsByPriceRange(
+    @Operation(summary = "Get products by price range, cheapest first unless a sort is given")
+    public ResponseEntity<ProductPageResponse> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
-            @RequestParam BigDecimal maxPrice) {
-        List<ProductDTO> products = productService.getProductsByPriceRange(minPrice, maxPrice);
-        return ResponseEntity.ok(products);
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        validatePage(page, size);
+        ProductPageResponse response = withBadRequest(() -> productService.getProductsByPriceRange(null,
+                minPrice, maxPrice, sortOf(sort), directionOf(direction), page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/category/{category}/price-range")
+    @Operation(summary = "Get products in a category by price range, cheapest first unless a sort is given")
+    public ResponseEntity<ProductPageResponse> getProductsByCategoryAndPriceRange(
+            @PathVariable String category,
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        validatePage(page, size);
+        ProductPageResponse response = withBadRequest(() -> productService.getProductsByPriceRange(category,
+                minPrice, maxPrice, sortOf(sort), directionOf(direction), page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    private static void validatePage(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static ProductSort sortOf(String sort) {
+        return ProductSort.fromParameter(sort);
+    }
+
+    private static Sort.Direction directionOf(String direction) {
+        return Sort.Direction.fromString(direction);
+    }
+
+    // Unknown sorts, directions and cursors that do not match the sort are client errors
+    private static <T> T withBadRequest(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.ecommerce.product.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductBatchRequest {
+    @NotEmpty
+    @Size(max = 500)
+    private List<@NotNull Long> productIds;
+}
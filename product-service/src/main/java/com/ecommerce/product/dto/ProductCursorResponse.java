@@ -0,0 +1,15 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductCursorResponse {
+    private List<ProductDTO> products;
+    private String nextCursor;
+    private boolean hasNext;
+    private ProductFacets facets;
+}
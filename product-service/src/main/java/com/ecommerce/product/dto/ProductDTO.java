@@ -1,11 +1,15 @@
 package com.ecommerce.product.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class ProductDTO {
     private Long id;
     private String name;
@@ -16,4 +20,5 @@ public class ProductDTO {
     private Integer stockQuantity;
     private boolean active;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
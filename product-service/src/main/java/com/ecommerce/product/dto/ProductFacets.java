@@ -0,0 +1,32 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductFacets {
+    private List<CategoryCount> categories;
+    private List<PriceBucketCount> priceBuckets;
+
+    @Data
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private long count;
+    }
+
+    /**
+     * Products priced from min (inclusive) up to max (exclusive); max is null for the open-ended top bucket.
+     */
+    @Data
+    @AllArgsConstructor
+    public static class PriceBucketCount {
+        private BigDecimal min;
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductPageResponse {
+    private int page;
+    private int size;
+    private long totalElements;
+    private List<ProductDTO> products;
+    private ProductFacets facets;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ProductSearchResponse {
+    private String keyword;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<ProductDTO> products;
+    private ProductFacets facets;
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductSuggestion {
+    private String text;
+    private String type;
+    private Long productId;
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.product.messaging;
+
+import com.ecommerce.product.dto.ProductChangedEvent;
+import com.ecommerce.product.service.ProductService;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ProductChangedListener {
+
+    private final ProductService productService;
+
+    public ProductChangedListener(ProductService productService) {
+        this.productService = productService;
+    }
+
+    // Every replica caches the catalog, so each one consumes with its own group.
+    // A fresh group would start at the latest offset and miss changes made between the catalog preload and
+    // partition assignment, leaving them stale until a restart; refreshing from the database is idempotent,
+    // so replaying the retained topic from the start only costs a few reads at startup.
+    @KafkaListener(topics = "product-changed", groupId = "product-service-${random.uuid}",
+            properties = "auto.offset.reset=earliest")
+    public void handleProductChanged(ProductChangedEvent event) {
+        try {
+            productService.refreshProducts(event.getProductIds());
+        } catch (Exception e) {
+            System.err.println("Failed to refresh cached products: " + event.getProductIds());
+        }
+    }
+}
@@ -12,7 +12,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_active_price", columnList = "active, price, id"),
+        @Index(name = "idx_products_active_created", columnList = "active, created_at, id"),
+        @Index(name = "idx_products_active_name", columnList = "active, name, id"),
+        @Index(name = "idx_products_category_price", columnList = "category, active, price, id"),
+        @Index(name = "idx_products_category_created", columnList = "category, active, created_at, id"),
+        @Index(name = "idx_products_category_name", columnList = "category, active, name, id"),
+        @Index(name = "idx_products_updated", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
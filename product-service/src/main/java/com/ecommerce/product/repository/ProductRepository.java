@@ -1,22 +1,57 @@
 package com.ecommerce.product.repository;
 
+import com.ecommerce.product.dto.ProductDTO;
 import com.ecommerce.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategory(String category);
     List<Product> findByNameContainingIgnoreCase(String name);
-    List<Product> findByActiveTrue();
+
+    List<Product> findByActiveTrueAndNameStartingWithOrderByNameAsc(String prefix, Limit limit);
+
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Product> findByCategoryAndActiveTrue(String category, ScrollPosition position, Sort sort, Limit limit);
 
     @Query("SELECT p FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
     List<Product> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice);
 
-    List<Product> findByCategoryAndPriceBetween(String category, BigDecimal minPrice, BigDecimal maxPrice);
+    @Query("SELECT p FROM Product p WHERE lower(trim(p.category)) = :category "
+            + "AND p.price BETWEEN :minPrice AND :maxPrice")
+    List<Product> findByNormalizedCategoryAndPriceRange(@Param("category") String normalizedCategory,
+                                                        @Param("minPrice") BigDecimal minPrice,
+                                                        @Param("maxPrice") BigDecimal maxPrice);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ecommerce.product.dto.ProductDTO(p.id, p.name, p.description, p.price, p.category, "
+            + "p.imageUrl, p.stockQuantity, p.active, p.createdAt, p.updatedAt) from Product p order by p.id")
+    Stream<ProductDTO> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ecommerce.product.dto.ProductDTO(p.id, p.name, p.description, p.price, p.category, "
+            + "p.imageUrl, p.stockQuantity, p.active, p.createdAt, p.updatedAt) from Product p "
+            + "where p.updatedAt >= :changedSince order by p.updatedAt, p.id")
+    Stream<ProductDTO> streamChangedSince(@Param("changedSince") LocalDateTime changedSince);
 }
\ No newline at end of file
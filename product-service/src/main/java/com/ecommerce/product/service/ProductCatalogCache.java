@@ -0,0 +1,105 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-through cache of products by id, kept current by every write and every change event.
+ * <p>
+ * Read-through loads and full catalog loads take a {@link #stamp()} before reading the database and are
+ * discarded if a change was applied in between, so a slow read cannot overwrite a newer product.
+ * <p>
+ * Only the first max-entries products by id are cached, but listeners always receive the whole catalog:
+ * the indexes are built whatever the cache size.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final Map<Long, ProductDTO> products = new ConcurrentHashMap<>();
+    private final List<ProductCatalogListener> listeners;
+    private final int maxEntries;
+    private final Counter hits;
+    private final Counter misses;
+    private long changes;
+
+    public ProductCatalogCache(@Value("${product.cache.max-entries:100000}") int maxEntries,
+                               List<ProductCatalogListener> listeners,
+                               MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.listeners = listeners;
+        this.hits = meterRegistry.counter("product.catalog.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("product.catalog.cache.requests", "result", "miss");
+        Gauge.builder("product.catalog.cache.size", products, Map::size).register(meterRegistry);
+    }
+
+    public ProductDTO get(Long id) {
+        ProductDTO product = products.get(id);
+        (product != null ? hits : misses).increment();
+        return product;
+    }
+
+    public synchronized long stamp() {
+        return changes;
+    }
+
+    public synchronized void putIfUnchanged(ProductDTO product, long stamp) {
+        if (stamp == changes && (products.size() < maxEntries || products.containsKey(product.getId()))) {
+            products.put(product.getId(), product);
+        }
+    }
+
+    public synchronized void put(ProductDTO product) {
+        changes++;
+        if (products.size() < maxEntries || products.containsKey(product.getId())) {
+            products.put(product.getId(), product);
+        }
+        listeners.forEach(listener -> listener.onProductChanged(product));
+    }
+
+    /**
+     * Applies several changes as one, so listeners can index a whole batch in a single pass.
+     */
+    public synchronized void putAll(List<ProductDTO> batch) {
+        changes++;
+        for (ProductDTO product : batch) {
+            if (products.size() < maxEntries || products.containsKey(product.getId())) {
+                products.put(product.getId(), product);
+            }
+        }
+        listeners.forEach(listener -> listener.onProductsChanged(batch));
+    }
+
+    public synchronized void evict(Long id) {
+        changes++;
+        products.remove(id);
+        listeners.forEach(listener -> listener.onProductRemoved(id));
+    }
+
+    /**
+     * Replaces the cache and rebuilds every listener from the catalog, unless a change was applied since the
+     * stamp was taken. Returns whether the catalog was loaded; a false return means it should be read again.
+     */
+    public synchronized boolean loadAllIfUnchanged(List<ProductDTO> catalog, long stamp) {
+        if (stamp != changes) {
+            return false;
+        }
+        changes++;
+        products.clear();
+        for (ProductDTO product : catalog) {
+            if (products.size() == maxEntries) {
+                break;
+            }
+            products.put(product.getId(), product);
+        }
+        listeners.forEach(listener -> listener.onCatalogLoaded(catalog));
+        return true;
+    }
+}
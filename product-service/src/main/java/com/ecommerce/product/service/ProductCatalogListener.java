@@ -0,0 +1,27 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Receives every authoritative change applied to {@link ProductCatalogCache}, so in-memory indexes
+ * can be built from the full catalog once and then maintained incrementally.
+ */
+public interface ProductCatalogListener {
+
+    void onCatalogLoaded(Collection<ProductDTO> products);
+
+    void onProductChanged(ProductDTO product);
+
+    /**
+     * Several products changed at once, such as an import batch. Listeners whose per-product update costs
+     * more than a map write should apply the batch in one pass; by default each product is applied in turn.
+     */
+    default void onProductsChanged(List<ProductDTO> products) {
+        products.forEach(this::onProductChanged);
+    }
+
+    void onProductRemoved(Long productId);
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.product.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque keyset cursor for product listings: the sort, its direction and the (sort value, id) of the last
+ * product returned, base64url encoded. A cursor is only valid for the sort it was issued for.
+ */
+final class ProductCursor {
+
+    private ProductCursor() {
+    }
+
+    static String encode(ProductSort sort, Sort.Direction direction, KeysetScrollPosition position) {
+        Map<String, Object> keys = position.getKeys();
+        Object value = keys.get(sort.getProperty());
+        String raw = sort.name() + "\n" + direction.name() + "\n" + keys.get("id") + "\n"
+                + (value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ScrollPosition decode(String cursor, ProductSort sort, Sort.Direction direction) {
+        if (cursor == null || cursor.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            Long id = Long.valueOf(parts[2]);
+            switch (sort) {
+                case PRICE -> keys.put(sort.getProperty(), new BigDecimal(parts[3]));
+                case CREATED_AT -> keys.put(sort.getProperty(), LocalDateTime.parse(parts[3]));
+                case NAME -> keys.put(sort.getProperty(), parts[3]);
+                default -> {
+                }
+            }
+            keys.put("id", id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return ScrollPosition.forward(keys);
+    }
+}
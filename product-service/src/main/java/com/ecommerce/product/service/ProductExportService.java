@@ -0,0 +1,50 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class ProductExportService {
+
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    public ProductExportService(ProductRepository productRepository, ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every product, or only those updated at or after changedSince, as one JSON object per line.
+     * Rows come from a forward-only cursor so memory use does not grow with the catalog. Inactive products
+     * are included so incremental consumers see deactivations.
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(LocalDateTime changedSince, OutputStream outputStream) throws IOException {
+        try (Stream<ProductDTO> products = changedSince == null
+                ? productRepository.streamAll()
+                : productRepository.streamChangedSince(changedSince)) {
+            Iterator<ProductDTO> iterator = products.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+                if (++written % EXPORT_FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        }
+    }
+}
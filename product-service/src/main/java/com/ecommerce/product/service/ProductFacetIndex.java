@@ -0,0 +1,243 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.dto.ProductFacets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts of active products per category, per price bucket and per category and price bucket, kept up to
+ * date from catalog changes so listing responses can carry facet counts without a GROUP BY per request.
+ * Categories are counted case-insensitively and reported with the spelling first seen.
+ */
+@Component
+public class ProductFacetIndex implements ProductCatalogListener {
+
+    private final BigDecimal[] bounds;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, CategoryCounts> categories = new HashMap<>();
+    private final long[] buckets;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public ProductFacetIndex(@Value("${product.facets.price-buckets:25,50,100,250,500,1000}") BigDecimal[] bounds) {
+        this.bounds = bounds.clone();
+        Arrays.sort(this.bounds);
+        this.buckets = new long[this.bounds.length + 1];
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onCatalogLoaded(Collection<ProductDTO> products) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            categories.clear();
+            Arrays.fill(buckets, 0);
+            for (ProductDTO product : products) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductChanged(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductsChanged(List<ProductDTO> products) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDTO product : products) {
+                remove(product.getId());
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Long productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Category counts for the whole catalog, and price bucket counts for the given category or, when it is
+     * null, for the whole catalog.
+     */
+    public ProductFacets facets(String category) {
+        lock.readLock().lock();
+        try {
+            long[] priceCounts;
+            if (category == null) {
+                priceCounts = buckets;
+            } else {
+                CategoryCounts counts = categories.get(normalize(category));
+                priceCounts = counts != null ? counts.buckets : new long[buckets.length];
+            }
+            List<ProductFacets.CategoryCount> categoryCounts = new ArrayList<>(categories.size());
+            for (CategoryCounts counts : categories.values()) {
+                categoryCounts.add(new ProductFacets.CategoryCount(counts.name, counts.total));
+            }
+            return new ProductFacets(sorted(categoryCounts), priceBuckets(priceCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts over a set of products, e.g. every hit of a search. Unknown or inactive ids are skipped.
+     */
+    public ProductFacets facetsOf(long[] productIds) {
+        Map<String, ProductFacets.CategoryCount> categoryCounts = new HashMap<>();
+        long[] priceCounts = new long[buckets.length];
+        lock.readLock().lock();
+        try {
+            for (long productId : productIds) {
+                Entry entry = entries.get(productId);
+                if (entry == null) {
+                    continue;
+                }
+                priceCounts[entry.bucket]++;
+                ProductFacets.CategoryCount count = categoryCounts.computeIfAbsent(entry.category,
+                        key -> new ProductFacets.CategoryCount(categories.get(key).name, 0));
+                count.setCount(count.getCount() + 1);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ProductFacets(sorted(new ArrayList<>(categoryCounts.values())), priceBuckets(priceCounts));
+    }
+
+    /**
+     * Lower bounds of every price bucket but the first, ascending.
+     */
+    public BigDecimal[] getPriceBounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Facets from counts taken elsewhere, such as a price index range counted over {@link #getPriceBounds()}.
+     */
+    public ProductFacets facetsOf(ProductPriceIndex.RangeCounts counts) {
+        List<ProductFacets.CategoryCount> categoryCounts = new ArrayList<>(counts.getCategoryCounts().size());
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Long> count : counts.getCategoryCounts().entrySet()) {
+                CategoryCounts known = categories.get(count.getKey());
+                categoryCounts.add(new ProductFacets.CategoryCount(known != null ? known.name : count.getKey(),
+                        count.getValue()));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ProductFacets(sorted(categoryCounts), priceBuckets(counts.getBucketCounts()));
+    }
+
+    private void add(ProductDTO product) {
+        if (!product.isActive() || product.getCategory() == null || product.getPrice() == null) {
+            return;
+        }
+        Entry entry = new Entry(normalize(product.getCategory()), bucketOf(product.getPrice()));
+        entries.put(product.getId(), entry);
+        CategoryCounts counts = categories.computeIfAbsent(entry.category,
+                key -> new CategoryCounts(product.getCategory(), buckets.length));
+        counts.total++;
+        counts.buckets[entry.bucket]++;
+        buckets[entry.bucket]++;
+    }
+
+    private void remove(Long productId) {
+        Entry entry = entries.remove(productId);
+        if (entry == null) {
+            return;
+        }
+        buckets[entry.bucket]--;
+        CategoryCounts counts = categories.get(entry.category);
+        counts.buckets[entry.bucket]--;
+        if (--counts.total == 0) {
+            categories.remove(entry.category);
+        }
+    }
+
+    private int bucketOf(BigDecimal price) {
+        int bucket = 0;
+        while (bucket < bounds.length && price.compareTo(bounds[bucket]) >= 0) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private List<ProductFacets.PriceBucketCount> priceBuckets(long[] counts) {
+        List<ProductFacets.PriceBucketCount> result = new ArrayList<>(counts.length);
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            result.add(new ProductFacets.PriceBucketCount(
+                    bucket == 0 ? BigDecimal.ZERO : bounds[bucket - 1],
+                    bucket < bounds.length ? bounds[bucket] : null,
+                    counts[bucket]));
+        }
+        return result;
+    }
+
+    private static List<ProductFacets.CategoryCount> sorted(List<ProductFacets.CategoryCount> counts) {
+        counts.sort(Comparator.comparingLong(ProductFacets.CategoryCount::getCount).reversed()
+                .thenComparing(ProductFacets.CategoryCount::getCategory));
+        return counts;
+    }
+
+    private static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final String category;
+        private final int bucket;
+
+        private Entry(String category, int bucket) {
+            this.category = category;
+            this.bucket = bucket;
+        }
+    }
+
+    private static final class CategoryCounts {
+        private final String name;
+        private final long[] buckets;
+        private long total;
+
+        private CategoryCounts(String name, int bucketCount) {
+            this.name = name;
+            this.buckets = new long[bucketCount];
+        }
+    }
+}
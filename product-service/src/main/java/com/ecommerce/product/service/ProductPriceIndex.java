@@ -0,0 +1,469 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Active products sorted by price, kept once for the whole catalog and once per category (case-insensitive).
+ * Prices are stored as cents in parallel primitive arrays ordered by (price, id), so a range query is two
+ * binary searches plus a copy of the requested page, and counting a range per category or price bucket is
+ * two binary searches per count.
+ */
+@Component
+public class ProductPriceIndex implements ProductCatalogListener {
+
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    private final SortedPrices all = new SortedPrices();
+    private final Map<String, SortedPrices> byCategory = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onCatalogLoaded(Collection<ProductDTO> products) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byCategory.clear();
+            for (ProductDTO product : products) {
+                Entry entry = entryOf(product);
+                if (entry != null) {
+                    entries.put(product.getId(), entry);
+                }
+            }
+
+            long[] prices = new long[entries.size()];
+            long[] ids = new long[entries.size()];
+            int i = 0;
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                ids[i] = entry.getKey();
+                prices[i++] = entry.getValue().priceCents;
+            }
+            all.load(prices, ids, entries.size());
+
+            // Walking the global order keeps every per-category array sorted without sorting again
+            for (int j = 0; j < all.size; j++) {
+                byCategory.computeIfAbsent(entries.get(all.ids[j]).category, category -> new SortedPrices())
+                        .append(all.prices[j], all.ids[j]);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductChanged(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            Entry entry = entryOf(product);
+            if (entry != null) {
+                entries.put(product.getId(), entry);
+                all.insert(entry.priceCents, product.getId());
+                byCategory.computeIfAbsent(entry.category, category -> new SortedPrices())
+                        .insert(entry.priceCents, product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the whole batch with one pass over each affected array: old positions are compacted away and
+     * the new ones merged in, instead of shifting the array tail once per product.
+     */
+    @Override
+    public void onProductsChanged(List<ProductDTO> products) {
+        // The last change to a product wins, as it would applied one by one
+        Map<Long, ProductDTO> latest = new LinkedHashMap<>();
+        for (ProductDTO product : products) {
+            latest.put(product.getId(), product);
+        }
+
+        lock.writeLock().lock();
+        try {
+            long[] replaced = new long[latest.size()];
+            int replacedCount = 0;
+            Set<String> touched = new HashSet<>();
+            for (Long productId : latest.keySet()) {
+                Entry previous = entries.remove(productId);
+                if (previous != null) {
+                    replaced[replacedCount++] = productId;
+                    touched.add(previous.category);
+                }
+            }
+            if (replacedCount > 0) {
+                replaced = Arrays.copyOf(replaced, replacedCount);
+                Arrays.sort(replaced);
+                all.removeAll(replaced);
+                for (String category : touched) {
+                    SortedPrices prices = byCategory.get(category);
+                    prices.removeAll(replaced);
+                    if (prices.size == 0) {
+                        byCategory.remove(category);
+                    }
+                }
+            }
+
+            List<Long> added = new ArrayList<>(latest.size());
+            Map<String, List<Long>> addedByCategory = new HashMap<>();
+            for (ProductDTO product : latest.values()) {
+                Entry entry = entryOf(product);
+                if (entry != null) {
+                    entries.put(product.getId(), entry);
+                    added.add(product.getId());
+                    addedByCategory.computeIfAbsent(entry.category, category -> new ArrayList<>()).add(product.getId());
+                }
+            }
+            all.mergeAll(sorted(added));
+            for (Map.Entry<String, List<Long>> category : addedByCategory.entrySet()) {
+                byCategory.computeIfAbsent(category.getKey(), key -> new SortedPrices())
+                        .mergeAll(sorted(category.getValue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Long productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of active products priced between min and max inclusive, in ascending price order.
+     * A null category searches the whole catalog.
+     */
+    public RangeResult range(String category, BigDecimal minPrice, BigDecimal maxPrice, int offset, int limit) {
+        return range(category, minPrice, maxPrice, offset, limit, false);
+    }
+
+    /**
+     * Like {@link #range(String, BigDecimal, BigDecimal, int, int)}, or most expensive first when descending.
+     */
+    public RangeResult range(String category, BigDecimal minPrice, BigDecimal maxPrice, int offset, int limit,
+                             boolean descending) {
+        long min = toCents(minPrice, RoundingMode.CEILING);
+        long max = toCents(maxPrice, RoundingMode.FLOOR);
+
+        lock.readLock().lock();
+        try {
+            SortedPrices prices = category == null ? all : byCategory.get(normalize(category));
+            if (prices == null || min > max) {
+                return new RangeResult(new long[0], 0);
+            }
+            int from = prices.from(min);
+            int to = prices.to(max);
+            int total = to - from;
+            int skip = Math.min(offset, total);
+            int count = Math.min(limit, total - skip);
+            if (!descending) {
+                return new RangeResult(Arrays.copyOfRange(prices.ids, from + skip, from + skip + count), total);
+            }
+            long[] page = new long[count];
+            for (int i = 0; i < count; i++) {
+                page[i] = prices.ids[to - 1 - skip - i];
+            }
+            return new RangeResult(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * How many active products priced between min and max inclusive fall in each category and in each price
+     * bucket, without touching the products themselves. Bucket i holds prices from bucketBounds[i - 1]
+     * (inclusive) up to bucketBounds[i] (exclusive), with open ends below the first and above the last bound.
+     * A null category counts the whole catalog; otherwise only that category is counted.
+     */
+    public RangeCounts count(String category, BigDecimal minPrice, BigDecimal maxPrice, BigDecimal[] bucketBounds) {
+        long min = toCents(minPrice, RoundingMode.CEILING);
+        long max = toCents(maxPrice, RoundingMode.FLOOR);
+        long[] bucketCounts = new long[bucketBounds.length + 1];
+        Map<String, Long> categoryCounts = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            SortedPrices prices = category == null ? all : byCategory.get(normalize(category));
+            if (prices == null || min > max) {
+                return new RangeCounts(categoryCounts, bucketCounts);
+            }
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                long low = bucket == 0 ? min : Math.max(min, toCents(bucketBounds[bucket - 1], RoundingMode.CEILING));
+                long high = bucket == bucketBounds.length
+                        ? max : Math.min(max, toCents(bucketBounds[bucket], RoundingMode.CEILING) - 1);
+                if (low <= high) {
+                    bucketCounts[bucket] = prices.to(high) - prices.from(low);
+                }
+            }
+            Map<String, SortedPrices> counted = category == null ? byCategory : Map.of(normalize(category), prices);
+            for (Map.Entry<String, SortedPrices> entry : counted.entrySet()) {
+                int count = entry.getValue().to(max) - entry.getValue().from(min);
+                if (count > 0) {
+                    categoryCounts.put(entry.getKey(), (long) count);
+                }
+            }
+            return new RangeCounts(categoryCounts, bucketCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remove(Long productId) {
+        Entry previous = entries.remove(productId);
+        if (previous == null) {
+            return;
+        }
+        all.delete(previous.priceCents, productId);
+        SortedPrices category = byCategory.get(previous.category);
+        if (category != null) {
+            category.delete(previous.priceCents, productId);
+            if (category.size == 0) {
+                byCategory.remove(previous.category);
+            }
+        }
+    }
+
+    private SortedPrices sorted(List<Long> productIds) {
+        long[] prices = new long[productIds.size()];
+        long[] ids = new long[productIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = productIds.get(i);
+            prices[i] = entries.get(productIds.get(i)).priceCents;
+        }
+        SortedPrices sorted = new SortedPrices();
+        sorted.load(prices, ids, ids.length);
+        return sorted;
+    }
+
+    private static Entry entryOf(ProductDTO product) {
+        if (!product.isActive() || product.getPrice() == null || product.getCategory() == null) {
+            return null;
+        }
+        return new Entry(toCents(product.getPrice(), RoundingMode.HALF_UP), normalize(product.getCategory()));
+    }
+
+    private static long toCents(BigDecimal price, RoundingMode roundingMode) {
+        BigDecimal cents = price.movePointRight(2).setScale(0, roundingMode);
+        if (cents.compareTo(MAX_CENTS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_CENTS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Entry {
+        private final long priceCents;
+        private final String category;
+
+        private Entry(long priceCents, String category) {
+            this.priceCents = priceCents;
+            this.category = category;
+        }
+    }
+
+    /**
+     * Parallel arrays sorted by (price, id). Inserts and deletes shift the tail, which is fine for a catalog
+     * that changes rarely compared to how often it is queried.
+     */
+    private static final class SortedPrices {
+        private long[] prices = new long[16];
+        private long[] ids = new long[16];
+        private int size;
+
+        void load(long[] unsortedPrices, long[] unsortedIds, int count) {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> unsortedPrices[a] != unsortedPrices[b]
+                    ? Long.compare(unsortedPrices[a], unsortedPrices[b])
+                    : Long.compare(unsortedIds[a], unsortedIds[b]));
+
+            prices = new long[Math.max(16, count)];
+            ids = new long[Math.max(16, count)];
+            for (int i = 0; i < count; i++) {
+                prices[i] = unsortedPrices[order[i]];
+                ids[i] = unsortedIds[order[i]];
+            }
+            size = count;
+        }
+
+        void append(long price, long id) {
+            ensureCapacity();
+            prices[size] = price;
+            ids[size++] = id;
+        }
+
+        void insert(long price, long id) {
+            ensureCapacity();
+            int index = lowerBound(price, id);
+            System.arraycopy(prices, index, prices, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            prices[index] = price;
+            ids[index] = id;
+            size++;
+        }
+
+        /**
+         * Merges another sorted array in with a single pass.
+         */
+        void mergeAll(SortedPrices other) {
+            if (other.size == 0) {
+                return;
+            }
+            long[] mergedPrices = new long[Math.max(16, size + other.size)];
+            long[] mergedIds = new long[mergedPrices.length];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < size || j < other.size) {
+                boolean takeOther = i == size || (j < other.size && (other.prices[j] < prices[i]
+                        || (other.prices[j] == prices[i] && other.ids[j] < ids[i])));
+                if (takeOther) {
+                    mergedPrices[k] = other.prices[j];
+                    mergedIds[k++] = other.ids[j++];
+                } else {
+                    mergedPrices[k] = prices[i];
+                    mergedIds[k++] = ids[i++];
+                }
+            }
+            prices = mergedPrices;
+            ids = mergedIds;
+            size = k;
+        }
+
+        /**
+         * Drops every position whose id is in the given sorted ids, compacting in one pass.
+         */
+        void removeAll(long[] sortedIds) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (Arrays.binarySearch(sortedIds, ids[i]) < 0) {
+                    prices[kept] = prices[i];
+                    ids[kept++] = ids[i];
+                }
+            }
+            size = kept;
+        }
+
+        private void ensureCapacity() {
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+
+        void delete(long price, long id) {
+            int index = lowerBound(price, id);
+            if (index < size && prices[index] == price && ids[index] == id) {
+                System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        /**
+         * First position priced at least min.
+         */
+        int from(long min) {
+            return lowerBound(min, Long.MIN_VALUE);
+        }
+
+        /**
+         * Position just past the last product priced at most max.
+         */
+        int to(long max) {
+            return max == Long.MAX_VALUE ? size : lowerBound(max + 1, Long.MIN_VALUE);
+        }
+
+        /**
+         * First position whose (price, id) is not less than the given pair.
+         */
+        int lowerBound(long price, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price || (prices[mid] == price && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    public static final class RangeResult {
+        private final long[] productIds;
+        private final int totalHits;
+
+        private RangeResult(long[] productIds, int totalHits) {
+            this.productIds = productIds;
+            this.totalHits = totalHits;
+        }
+
+        public long[] getProductIds() {
+            return productIds;
+        }
+
+        public int getTotalHits() {
+            return totalHits;
+        }
+    }
+
+    /**
+     * Range counts keyed by normalized category, and per price bucket.
+     */
+    public static final class RangeCounts {
+        private final Map<String, Long> categoryCounts;
+        private final long[] bucketCounts;
+
+        private RangeCounts(Map<String, Long> categoryCounts, long[] bucketCounts) {
+            this.categoryCounts = categoryCounts;
+            this.bucketCounts = bucketCounts;
+        }
+
+        public Map<String, Long> getCategoryCounts() {
+            return categoryCounts;
+        }
+
+        public long[] getBucketCounts() {
+            return bucketCounts;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-process inverted index over product name, category and description. Only active products are indexed.
+ * <p>
+ * Terms are lower-cased, stripped of accents and split on anything that is not a letter or digit. Hits are
+ * ranked with BM25 over field-weighted term frequencies (name counts more than category, which counts more
+ * than description). A query only touches the postings of its own terms and keeps the best results in a
+ * bounded heap, so its cost depends on how common the terms are, not on the size of the catalog.
+ * <p>
+ * Each term's postings are parallel primitive arrays of product ids and term frequencies, sorted by id, so a
+ * posting costs 12 bytes rather than a boxed map entry.
+ */
+@Component
+public class ProductSearchIndex implements ProductCatalogListener {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private double totalLength;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onCatalogLoaded(Collection<ProductDTO> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            // In id order every posting is an append
+            List<ProductDTO> byId = new ArrayList<>(products);
+            byId.sort(Comparator.comparing(ProductDTO::getId));
+            for (ProductDTO product : byId) {
+                add(product);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductChanged(ProductDTO product) {
+        lock.writeLock().lock();
+        try {
+            remove(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductsChanged(List<ProductDTO> products) {
+        lock.writeLock().lock();
+        try {
+            for (ProductDTO product : products) {
+                remove(product.getId());
+                add(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductRemoved(Long productId) {
+        lock.writeLock().lock();
+        try {
+            remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matches for the query, skipping the first offset hits, along with the ids
+     * of every hit so callers can count facets without matching the query a second time.
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty() || limit <= 0) {
+            return new SearchResult(Collections.emptyList(), new long[0]);
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            double averageLength = documentCount > 0 ? totalLength / documentCount : 1;
+            Map<Long, Double> scores = new HashMap<>();
+
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+                for (int i = 0; i < termPostings.size; i++) {
+                    Long productId = termPostings.ids[i];
+                    double frequency = termPostings.frequencies[i];
+                    double length = documents.get(productId).length;
+                    double score = idf * frequency * (K1 + 1)
+                            / (frequency + K1 * (1 - B + B * length / averageLength));
+                    scores.merge(productId, score, Double::sum);
+                }
+            }
+
+            long[] matchingIds = new long[scores.size()];
+            int matched = 0;
+            for (Long productId : scores.keySet()) {
+                matchingIds[matched++] = productId;
+            }
+            if (offset >= scores.size()) {
+                return new SearchResult(Collections.emptyList(), matchingIds);
+            }
+            int wanted = (int) Math.min((long) offset + limit, scores.size());
+            PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(
+                    Math.max(1, wanted),
+                    (a, b) -> a.getValue().equals(b.getValue())
+                            ? Long.compare(b.getKey(), a.getKey())
+                            : Double.compare(a.getValue(), b.getValue()));
+            for (Map.Entry<Long, Double> candidate : scores.entrySet()) {
+                if (best.size() < wanted) {
+                    best.offer(candidate);
+                } else if (best.comparator().compare(candidate, best.peek()) > 0) {
+                    best.poll();
+                    best.offer(candidate);
+                }
+            }
+
+            List<Long> ranked = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                ranked.add(best.poll().getKey());
+            }
+            Collections.reverse(ranked);
+            List<Long> page = offset < ranked.size() ? ranked.subList(offset, ranked.size()) : Collections.emptyList();
+            return new SearchResult(new ArrayList<>(page), matchingIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDTO product) {
+        if (!product.isActive()) {
+            return;
+        }
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, product.getName(), NAME_WEIGHT);
+        addField(frequencies, product.getCategory(), CATEGORY_WEIGHT);
+        addField(frequencies, product.getDescription(), DESCRIPTION_WEIGHT);
+
+        float length = 0;
+        String[] terms = new String[frequencies.size()];
+        int i = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+            termPostings.put(product.getId(), entry.getValue());
+            // Keep the index's own copy of the term, not one String per product
+            terms[i++] = termPostings.term;
+            length += entry.getValue();
+        }
+        documents.put(product.getId(), new Document(terms, length));
+        totalLength += length;
+    }
+
+    private void remove(Long productId) {
+        Document document = documents.remove(productId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private static void addField(Map<String, Float> frequencies, String text, float weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * One term's postings, sorted by product id. Products mostly arrive in id order, which makes a put an
+     * append; anything else shifts the tail.
+     */
+    private static final class Postings {
+        private final String term;
+        private long[] ids = new long[2];
+        private float[] frequencies = new float[2];
+        private int size;
+
+        private Postings(String term) {
+            this.term = term;
+        }
+
+        void put(long productId, float frequency) {
+            int index = indexOf(productId);
+            if (index >= 0) {
+                frequencies[index] = frequency;
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+            ids[index] = productId;
+            frequencies[index] = frequency;
+            size++;
+        }
+
+        void remove(long productId) {
+            int index = indexOf(productId);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+            size--;
+            if (size > 0 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+                frequencies = Arrays.copyOf(frequencies, frequencies.length / 2);
+            }
+        }
+
+        private int indexOf(long productId) {
+            if (size > 0 && ids[size - 1] < productId) {
+                return -size - 1;
+            }
+            return Arrays.binarySearch(ids, 0, size, productId);
+        }
+    }
+
+    private static final class Document {
+        private final String[] terms;
+        private final float length;
+
+        private Document(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    public static final class SearchResult {
+        private final List<Long> productIds;
+        private final long[] matchingIds;
+
+        private SearchResult(List<Long> productIds, long[] matchingIds) {
+            this.productIds = productIds;
+            this.matchingIds = matchingIds;
+        }
+
+        public List<Long> getProductIds() {
+            return productIds;
+        }
+
+        /**
+         * Every hit of the query, unranked.
+         */
+        public long[] getMatchingIds() {
+            return matchingIds;
+        }
+
+        public int getTotalHits() {
+            return matchingIds.length;
+        }
+    }
+}
@@ -1,39 +1,231 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.dto.ProductChangedEvent;
+import com.ecommerce.product.dto.ProductCursorResponse;
 import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.dto.ProductFacets;
+import com.ecommerce.product.dto.ProductPageResponse;
+import com.ecommerce.product.dto.ProductSearchResponse;
+import com.ecommerce.product.dto.ProductSuggestion;
 import com.ecommerce.product.model.Product;
 import com.ecommerce.product.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductCatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+    private final ProductSuggestIndex suggestIndex;
+    private final ProductFacetIndex facetIndex;
+    private final Timer indexQueryTimer;
+    private final Timer databaseQueryTimer;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean preloadCatalog;
+    private final int preloadAttempts;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductCatalogCache catalogCache,
+                          ProductSearchIndex searchIndex,
+                          ProductPriceIndex priceIndex,
+                          ProductSuggestIndex suggestIndex,
+                          ProductFacetIndex facetIndex,
+                          MeterRegistry meterRegistry,
+                          KafkaTemplate<String, Object> kafkaTemplate,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${product.cache.preload:true}") boolean preloadCatalog,
+                          @Value("${product.cache.preload-attempts:5}") int preloadAttempts) {
         this.productRepository = productRepository;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.priceIndex = priceIndex;
+        this.suggestIndex = suggestIndex;
+        this.facetIndex = facetIndex;
+        this.indexQueryTimer = meterRegistry.timer("product.price.range.queries", "source", "index");
+        this.databaseQueryTimer = meterRegistry.timer("product.price.range.queries", "source", "database");
+        this.kafkaTemplate = kafkaTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.preloadCatalog = preloadCatalog;
+        this.preloadAttempts = preloadAttempts;
     }
 
-    public List<ProductDTO> getAllProducts() {
-        return productRepository.findByActiveTrue().stream()
+    /**
+     * Loads the catalog into the cache and the indexes. The rows are read as DTO projections over a
+     * forward-only cursor, each attempt in its own transaction; an attempt that overlapped a product
+     * write is discarded and read again, so the write is not overwritten by the older snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadCatalog() {
+        if (!preloadCatalog) {
+            return;
+        }
+        for (int attempt = 1; attempt <= preloadAttempts; attempt++) {
+            long stamp = catalogCache.stamp();
+            List<ProductDTO> catalog = readOnlyTransaction.execute(status -> {
+                try (Stream<ProductDTO> products = productRepository.streamAll()) {
+                    return products.collect(Collectors.toList());
+                }
+            });
+            if (catalogCache.loadAllIfUnchanged(catalog, stamp)) {
+                return;
+            }
+        }
+        System.err.println("Catalog preload kept racing with product writes; serving from the database");
+    }
+
+    /**
+     * One page of active products in the requested order. Pass the returned nextCursor to get the next page;
+     * each page is a keyset query on the sort columns, so deep pages cost the same as the first.
+     */
+    public ProductCursorResponse getProducts(ProductSort sort, Sort.Direction direction, String cursor, int size) {
+        ScrollPosition position = ProductCursor.decode(cursor, sort, direction);
+        return toCursorResponse(productRepository.findByActiveTrue(position, sort.toSort(direction), Limit.of(size)),
+                sort, direction, facets(null));
+    }
+
+    public ProductCursorResponse getProductsByCategory(String category, ProductSort sort, Sort.Direction direction,
+                                                       String cursor, int size) {
+        ScrollPosition position = ProductCursor.decode(cursor, sort, direction);
+        return toCursorResponse(productRepository.findByCategoryAndActiveTrue(category, position,
+                sort.toSort(direction), Limit.of(size)), sort, direction, facets(category));
+    }
+
+    private ProductCursorResponse toCursorResponse(Window<Product> window, ProductSort sort, Sort.Direction direction,
+                                                   ProductFacets facets) {
+        List<ProductDTO> products = window.getContent().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+                ? ProductCursor.encode(sort, direction, (KeysetScrollPosition) window.positionAt(window.size() - 1))
+                : null;
+        return new ProductCursorResponse(products, nextCursor, nextCursor != null, facets);
+    }
+
+    /**
+     * Category and price bucket counts for the catalog or one category, or null until the facet index is built.
+     */
+    private ProductFacets facets(String category) {
+        return facetIndex.isReady() ? facetIndex.facets(category) : null;
+    }
+
+    /**
+     * Category and price bucket counts over exactly the given products, or null until the facet index is built.
+     */
+    private ProductFacets facetsOf(long[] productIds) {
+        return facetIndex.isReady() ? facetIndex.facetsOf(productIds) : null;
     }
 
     public ProductDTO getProductById(Long id) {
+        suggestIndex.recordView(id);
+        ProductDTO cached = catalogCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = catalogCache.stamp();
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
-        return convertToDTO(product);
+        ProductDTO productDTO = convertToDTO(product);
+        catalogCache.putIfUnchanged(productDTO, stamp);
+        return productDTO;
+    }
+
+    /**
+     * Products for the given ids in request order, duplicates collapsed and unknown ids left out.
+     * Cached products are served from the catalog cache and the rest are loaded with a single query; the
+     * indexes cover the whole catalog while the cache is capped, so index hits go through here as well.
+     */
+    public List<ProductDTO> getProductsByIds(List<Long> ids) {
+        Map<Long, ProductDTO> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            ProductDTO cached = catalogCache.get(id);
+            found.put(id, cached);
+            if (cached == null) {
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long stamp = catalogCache.stamp();
+            for (Product product : productRepository.findAllById(missing)) {
+                ProductDTO productDTO = convertToDTO(product);
+                catalogCache.putIfUnchanged(productDTO, stamp);
+                found.put(product.getId(), productDTO);
+            }
+        }
+
+        return found.values().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reloads the given products into the cache after they were changed, here or on another replica.
+     */
+    public void refreshProducts(List<Long> ids) {
+        Set<Long> found = new HashSet<>();
+        List<ProductDTO> refreshed = new ArrayList<>(ids.size());
+        for (Product product : productRepository.findAllById(ids)) {
+            refreshed.add(convertToDTO(product));
+            found.add(product.getId());
+        }
+        catalogCache.putAll(refreshed);
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                catalogCache.evict(id);
+            }
+        }
+    }
+
+    /**
+     * Caches products written outside JPA, such as a bulk import, and tells the other replicas about them.
+     */
+    public void productsImported(List<Product> products) {
+        List<ProductDTO> imported = new ArrayList<>(products.size());
+        List<Long> ids = new ArrayList<>(products.size());
+        for (Product product : products) {
+            imported.add(convertToDTO(product));
+            ids.add(product.getId());
+        }
+        catalogCache.putAll(imported);
+        kafkaTemplate.send("product-changed", new ProductChangedEvent(ids));
     }
 
     public ProductDTO createProduct(ProductDTO productDTO) {
         Product product = convertToEntity(productDTO);
         Product savedProduct = productRepository.save(product);
-        return convertToDTO(savedProduct);
+        return cacheAndPublish(savedProduct);
     }
 
     public ProductDTO updateProduct(Long id, ProductDTO productDTO) {
@@ -49,37 +241,124 @@ public class ProductService {
         existingProduct.setActive(productDTO.isActive());
 
         Product updatedProduct = productRepository.save(existingProduct);
-        return convertToDTO(updatedProduct);
+        return cacheAndPublish(updatedProduct);
     }
 
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setActive(false);
-        productRepository.save(product);
+        cacheAndPublish(productRepository.save(product));
     }
 
-    public List<ProductDTO> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category).stream()
-                .filter(Product::isActive)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    private ProductDTO cacheAndPublish(Product product) {
+        ProductDTO productDTO = convertToDTO(product);
+        catalogCache.put(productDTO);
+        kafkaTemplate.send("product-changed", String.valueOf(product.getId()),
+                new ProductChangedEvent(List.of(product.getId())));
+        return productDTO;
     }
 
-    public List<ProductDTO> searchProducts(String keyword) {
-        return productRepository.findByNameContainingIgnoreCase(keyword).stream()
-                .filter(Product::isActive)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    /**
+     * Full-text search over name, category and description, ranked by relevance unless a sort is given.
+     * Until the search index has been built from the catalog this falls back to a name-only LIKE query.
+     */
+    public ProductSearchResponse searchProducts(String keyword, ProductSort sort, Sort.Direction direction,
+                                                int page, int size) {
+        if (!searchIndex.isReady()) {
+            List<ProductDTO> matches = productRepository.findByNameContainingIgnoreCase(keyword).stream()
+                    .filter(Product::isActive)
+                    .map(this::convertToDTO)
+                    .sorted((sort != null ? sort : ProductSort.ID).comparator(direction))
+                    .collect(Collectors.toList());
+            return new ProductSearchResponse(keyword, page, size, matches.size(), slice(matches, page, size), null);
+        }
+
+        if (sort == null) {
+            ProductSearchIndex.SearchResult result = searchIndex.search(keyword, offset(page, size), size);
+            return new ProductSearchResponse(keyword, page, size, result.getTotalHits(),
+                    getProductsByIds(result.getProductIds()), facetsOf(result.getMatchingIds()));
+        }
+
+        // Re-ordering needs every hit, not just the top of the relevance ranking
+        ProductSearchIndex.SearchResult result = searchIndex.search(keyword, 0, Integer.MAX_VALUE);
+        List<ProductDTO> hits = getProductsByIds(result.getProductIds());
+        hits.sort(sort.comparator(direction));
+        return new ProductSearchResponse(keyword, page, size, result.getTotalHits(), slice(hits, page, size),
+                facetsOf(result.getMatchingIds()));
     }
 
-    public List<ProductDTO> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-        return productRepository.findByPriceRange(minPrice, maxPrice).stream()
-                .filter(Product::isActive)
-                .map(this::convertToDTO)
+    /**
+     * Type-ahead suggestions for a partial query, most viewed first. Until the suggest index has been built
+     * this falls back to a name prefix query.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+        return productRepository.findByActiveTrueAndNameStartingWithOrderByNameAsc(prefix.trim(), Limit.of(limit)).stream()
+                .map(product -> new ProductSuggestion(product.getName(), "product", product.getId()))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Index of the first hit on the page, clamped so deep pages cannot overflow into a negative offset;
+     * any offset past the last hit simply yields an empty page.
+     */
+    private static int offset(int page, int size) {
+        return (int) Math.min((long) page * size, Integer.MAX_VALUE);
+    }
+
+    private static List<ProductDTO> slice(List<ProductDTO> products, int page, int size) {
+        int from = (int) Math.min((long) page * size, products.size());
+        int to = (int) Math.min((long) from + size, products.size());
+        return new ArrayList<>(products.subList(from, to));
+    }
+
+    /**
+     * Active products priced between minPrice and maxPrice inclusive, optionally limited to one category.
+     * Served from the price index once it is built, otherwise from the database. Pages ordered by price come
+     * straight from the index; other orders sort the matching products in memory.
+     */
+    public ProductPageResponse getProductsByPriceRange(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                                       ProductSort sort, Sort.Direction direction,
+                                                       int page, int size) {
+        if (priceIndex.isReady()) {
+            return indexQueryTimer.record(() -> {
+                // Facets count the whole range with binary searches, without reading the matching products
+                ProductFacets facets = facetIndex.isReady()
+                        ? facetIndex.facetsOf(priceIndex.count(category, minPrice, maxPrice, facetIndex.getPriceBounds()))
+                        : null;
+                if (sort == ProductSort.PRICE) {
+                    ProductPriceIndex.RangeResult result = priceIndex.range(category, minPrice, maxPrice,
+                            offset(page, size), size, direction.isDescending());
+                    List<Long> ids = Arrays.stream(result.getProductIds()).boxed().collect(Collectors.toList());
+                    return new ProductPageResponse(page, size, result.getTotalHits(), getProductsByIds(ids), facets);
+                }
+                // Any other order needs every match before it can cut a page
+                ProductPriceIndex.RangeResult result = priceIndex.range(category, minPrice, maxPrice, 0, Integer.MAX_VALUE);
+                List<ProductDTO> matches = getProductsByIds(Arrays.stream(result.getProductIds()).boxed().collect(Collectors.toList()));
+                matches.sort(sort.comparator(direction));
+                return new ProductPageResponse(page, size, result.getTotalHits(), slice(matches, page, size), facets);
+            });
+        }
+
+        return databaseQueryTimer.record(() -> {
+            List<Product> matches = category == null
+                    ? productRepository.findByPriceRange(minPrice, maxPrice)
+                    // Match categories the way the price index does, so results do not change once it is built
+                    : productRepository.findByNormalizedCategoryAndPriceRange(ProductPriceIndex.normalize(category),
+                            minPrice, maxPrice);
+            List<ProductDTO> active = matches.stream()
+                    .filter(Product::isActive)
+                    .map(this::convertToDTO)
+                    .sorted(sort.comparator(direction))
+                    .collect(Collectors.toList());
+            ProductFacets facets = facetsOf(active.stream().mapToLong(ProductDTO::getId).toArray());
+            return new ProductPageResponse(page, size, active.size(), slice(active, page, size), facets);
+        });
+    }
+
     private ProductDTO convertToDTO(Product product) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
@@ -91,6 +370,7 @@ public class ProductService {
         dto.setStockQuantity(product.getStockQuantity());
         dto.setActive(product.isActive());
         dto.setCreatedAt(product.getCreatedAt());
+        dto.setUpdatedAt(product.getUpdatedAt());
         return dto;
     }
 
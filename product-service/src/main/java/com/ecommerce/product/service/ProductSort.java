@@ -0,0 +1,53 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+import java.util.function.Function;
+
+/**
+ * Sort orders offered by the product listing endpoints. Every order is made total by breaking ties on id,
+ * which keyset pagination relies on.
+ */
+public enum ProductSort {
+    ID("id", ProductDTO::getId),
+    PRICE("price", ProductDTO::getPrice),
+    CREATED_AT("createdAt", ProductDTO::getCreatedAt),
+    NAME("name", ProductDTO::getName);
+
+    private final String property;
+    private final Function<ProductDTO, ? extends Comparable<?>> key;
+
+    ProductSort(String property, Function<ProductDTO, ? extends Comparable<?>> key) {
+        this.property = property;
+        this.key = key;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort toSort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<ProductDTO> comparator(Sort.Direction direction) {
+        Comparator<ProductDTO> comparator = Comparator.comparing((Function) key, Comparator.nullsFirst(Comparator.naturalOrder()));
+        if (this != ID) {
+            comparator = comparator.thenComparing(ProductDTO::getId);
+        }
+        return direction.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    public static ProductSort fromParameter(String value) {
+        for (ProductSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort '" + value + "', expected one of id, price, createdAt, name");
+    }
+}
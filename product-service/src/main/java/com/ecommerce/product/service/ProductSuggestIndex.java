@@ -0,0 +1,344 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDTO;
+import com.ecommerce.product.dto.ProductSuggestion;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Type-ahead suggestions over active product names and categories, ranked by popularity (product views,
+ * summed per category). Every word of a name or category starts a key, so "ipho" finds "Apple iPhone 15".
+ * <p>
+ * The keys form a sorted array of (suggestion, offset) pairs, which is a trie flattened in key order: all
+ * keys under a prefix are one contiguous range, found with two binary searches. Suggestions are numbered
+ * in rank order, so the best matches are the smallest numbers in that range. Prefixes that cover more than
+ * a few hundred keys have their top suggestions precomputed; anything narrower is cheap to scan.
+ * <p>
+ * The structure is immutable and swapped in whole. Catalog changes and new views mark it dirty and it is
+ * rebuilt on a fixed delay; until then removed or deactivated products are filtered out at lookup time.
+ */
+@Component
+public class ProductSuggestIndex implements ProductCatalogListener {
+
+    private static final int PRECOMPUTE_THRESHOLD = 256;
+    private static final int TOP_PER_PREFIX = 16;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<Long, Entry> products = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> views = new ConcurrentHashMap<>();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile boolean dirty;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onCatalogLoaded(Collection<ProductDTO> catalog) {
+        products.clear();
+        for (ProductDTO product : catalog) {
+            if (product.isActive()) {
+                products.put(product.getId(), new Entry(product.getName(), product.getCategory()));
+            }
+        }
+        rebuild();
+        ready = true;
+    }
+
+    @Override
+    public void onProductChanged(ProductDTO product) {
+        if (product.isActive()) {
+            products.put(product.getId(), new Entry(product.getName(), product.getCategory()));
+        } else {
+            products.remove(product.getId());
+        }
+        dirty = true;
+    }
+
+    @Override
+    public void onProductRemoved(Long productId) {
+        products.remove(productId);
+        views.remove(productId);
+        dirty = true;
+    }
+
+    public void recordView(Long productId) {
+        if (products.containsKey(productId)) {
+            views.computeIfAbsent(productId, id -> new AtomicLong()).incrementAndGet();
+            dirty = true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.rebuild-interval-ms:60000}")
+    public void rebuildIfDirty() {
+        if (ready && dirty) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Most popular names and categories with a word starting with the given prefix.
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        Snapshot current = snapshot;
+        int from = current.bound(query, false);
+        int to = current.bound(query, true);
+        int[] ranked = to - from > PRECOMPUTE_THRESHOLD ? current.top.get(query) : current.best(from, to);
+
+        List<ProductSuggestion> results = new ArrayList<>(Math.min(limit, ranked.length));
+        for (int index : ranked) {
+            Suggestion suggestion = current.suggestions[index];
+            if (suggestion.productId != null && !products.containsKey(suggestion.productId)) {
+                continue;
+            }
+            results.add(new ProductSuggestion(suggestion.text, suggestion.productId != null ? "product" : "category",
+                    suggestion.productId));
+            if (results.size() == limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private synchronized void rebuild() {
+        dirty = false;
+        List<Suggestion> suggestions = new ArrayList<>(products.size());
+        Map<String, Suggestion> categories = new HashMap<>();
+        for (Map.Entry<Long, Entry> product : products.entrySet()) {
+            AtomicLong productViews = views.get(product.getKey());
+            long score = productViews != null ? productViews.get() : 0;
+            Entry entry = product.getValue();
+            if (entry.name != null) {
+                suggestions.add(new Suggestion(entry.name, normalize(entry.name), product.getKey(), score));
+            }
+            if (entry.category != null) {
+                String normalized = normalize(entry.category);
+                categories.computeIfAbsent(normalized, c -> new Suggestion(entry.category, c, null, 0)).score += score + 1;
+            }
+        }
+        suggestions.addAll(categories.values());
+        suggestions.sort(Comparator.comparingLong((Suggestion s) -> s.score).reversed()
+                .thenComparing(s -> s.normalized));
+        snapshot = Snapshot.build(suggestions.toArray(new Suggestion[0]));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final String category;
+
+        private Entry(String name, String category) {
+            this.name = name;
+            this.category = category;
+        }
+    }
+
+    private static final class Suggestion {
+        private final String text;
+        private final String normalized;
+        private final Long productId;
+        private long score;
+
+        private Suggestion(String text, String normalized, Long productId, long score) {
+            this.text = text;
+            this.normalized = normalized;
+            this.productId = productId;
+            this.score = score;
+        }
+    }
+
+    private static final class Snapshot {
+        private static final Snapshot EMPTY = build(new Suggestion[0]);
+
+        private final Suggestion[] suggestions;
+        private final int[] keySuggestions;
+        private final int[] keyOffsets;
+        private final Map<String, int[]> top = new HashMap<>();
+
+        private Snapshot(Suggestion[] suggestions, int[] keySuggestions, int[] keyOffsets) {
+            this.suggestions = suggestions;
+            this.keySuggestions = keySuggestions;
+            this.keyOffsets = keyOffsets;
+        }
+
+        static Snapshot build(Suggestion[] suggestions) {
+            int count = 0;
+            for (Suggestion suggestion : suggestions) {
+                count += wordCount(suggestion.normalized);
+            }
+
+            Snapshot unsorted = new Snapshot(suggestions, new int[count], new int[count]);
+            int key = 0;
+            for (int index = 0; index < suggestions.length; index++) {
+                String text = suggestions[index].normalized;
+                for (int offset = 0; offset < text.length(); offset++) {
+                    if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                        unsorted.keySuggestions[key] = index;
+                        unsorted.keyOffsets[key++] = offset;
+                    }
+                }
+            }
+
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, unsorted::compareKeys);
+
+            Snapshot snapshot = new Snapshot(suggestions, new int[count], new int[count]);
+            for (int i = 0; i < count; i++) {
+                snapshot.keySuggestions[i] = unsorted.keySuggestions[order[i]];
+                snapshot.keyOffsets[i] = unsorted.keyOffsets[order[i]];
+            }
+            snapshot.precomputeTop();
+            return snapshot;
+        }
+
+        private static int wordCount(String text) {
+            int words = 0;
+            for (int offset = 0; offset < text.length(); offset++) {
+                if (offset == 0 || text.charAt(offset - 1) == ' ') {
+                    words++;
+                }
+            }
+            return words;
+        }
+
+        /**
+         * Walks the sorted keys one prefix length at a time and stores the top suggestions of every prefix
+         * that is shared by more keys than a lookup should scan.
+         */
+        private void precomputeTop() {
+            boolean wide = true;
+            for (int length = 1; wide; length++) {
+                wide = false;
+                int from = 0;
+                while (from < keySuggestions.length) {
+                    if (keyText(from).length() - keyOffsets[from] < length) {
+                        from++;
+                        continue;
+                    }
+                    int to = from + 1;
+                    while (to < keySuggestions.length && samePrefix(from, to, length)) {
+                        to++;
+                    }
+                    if (to - from > PRECOMPUTE_THRESHOLD) {
+                        wide = true;
+                        top.put(keyText(from).substring(keyOffsets[from], keyOffsets[from] + length), best(from, to));
+                    }
+                    from = to;
+                }
+            }
+        }
+
+        /**
+         * The best distinct suggestions among keys [from, to), in rank order.
+         */
+        int[] best(int from, int to) {
+            int[] best = new int[TOP_PER_PREFIX];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                int index = keySuggestions[i];
+                if (count == TOP_PER_PREFIX && index >= best[count - 1]) {
+                    continue;
+                }
+                int position = Arrays.binarySearch(best, 0, count, index);
+                if (position >= 0) {
+                    continue;
+                }
+                position = -position - 1;
+                int moved = Math.min(count, TOP_PER_PREFIX - 1) - position;
+                System.arraycopy(best, position, best, position + 1, moved);
+                best[position] = index;
+                count = Math.min(count + 1, TOP_PER_PREFIX);
+            }
+            return count == best.length ? best : Arrays.copyOf(best, count);
+        }
+
+        /**
+         * First key that sorts after the prefix (upper) or not before it (lower).
+         */
+        int bound(String prefix, boolean upper) {
+            int low = 0;
+            int high = keySuggestions.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = comparePrefix(mid, prefix);
+                if (cmp < 0 || (upper && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int comparePrefix(int key, String prefix) {
+            String text = keyText(key);
+            int offset = keyOffsets[key];
+            int length = Math.min(text.length() - offset, prefix.length());
+            for (int i = 0; i < length; i++) {
+                int cmp = Character.compare(text.charAt(offset + i), prefix.charAt(i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return length == prefix.length() ? 0 : -1;
+        }
+
+        private int compareKeys(int a, int b) {
+            String textA = keyText(a);
+            String textB = keyText(b);
+            int offsetA = keyOffsets[a];
+            int offsetB = keyOffsets[b];
+            int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                int cmp = Character.compare(textA.charAt(offsetA + i), textB.charAt(offsetB + i));
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return Integer.compare(textA.length() - offsetA, textB.length() - offsetB);
+        }
+
+        private boolean samePrefix(int a, int b, int length) {
+            String textB = keyText(b);
+            return textB.length() - keyOffsets[b] >= length
+                    && keyText(a).regionMatches(keyOffsets[a], textB, keyOffsets[b], length);
+        }
+
+        private String keyText(int key) {
+            return suggestions[keySuggestions[key]].normalized;
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package com.ecommerce.user.config;
 
+import com.ecommerce.user.security.BoundedPasswordEncoder;
+import com.ecommerce.user.security.GatewayIdentityResolver;
+import com.ecommerce.user.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength,
+                                           @Value("${security.bcrypt.pool-size:0}") int poolSize,
+                                           @Value("${security.bcrypt.queue-capacity:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        // Leave half the cores for the rest of the service unless a pool size is configured
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -26,14 +39,24 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           JwtUtil jwtUtil,
+                                           GatewayIdentityResolver identityResolver) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/users/register", "/users/login", "/actuator/health").permitAll()
+                        .requestMatchers("/users/register", "/users/login", "/users/logout", "/users/availability", "/actuator/health").permitAll()
+                        // Only other services, signing their own identity with the shared secret
+                        .requestMatchers("/users/internal/**").hasRole("SERVICE")
+                        .requestMatchers(HttpMethod.GET, "/users", "/users/export").hasRole("ADMIN")
                         .anyRequest().authenticated()
-                );
+                )
+                // A missing or invalid identity is 401, not the default 403 for anonymous requests
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, identityResolver),
+                        UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
@@ -1,18 +1,23 @@
 package com.ecommerce.user.controller;
 
 import com.ecommerce.user.dto.*;
-import com.ecommerce.user.model.User;
-import com.ecommerce.user.service.CustomUserDetailsService;
+import com.ecommerce.user.security.AuthenticatedUser;
+import com.ecommerce.user.service.TokenRevocationService;
 import com.ecommerce.user.service.UserService;
 import com.ecommerce.user.config.JwtUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -21,19 +26,21 @@ import java.util.List;
 @Tag(name = "User Management", description = "APIs for user registration, authentication, and profile management")
 public class UserController {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AuthenticationManager authenticationManager;
-    private final CustomUserDetailsService userDetailsService;
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
 
     public UserController(AuthenticationManager authenticationManager,
-                          CustomUserDetailsService userDetailsService,
                           JwtUtil jwtUtil,
-                          UserService userService) {
+                          UserService userService,
+                          TokenRevocationService tokenRevocationService) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @PostMapping("/register")
@@ -43,6 +50,18 @@ public class UserController {
         return ResponseEntity.ok(userDTO);
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Check whether a username and/or email can still be registered")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(@RequestParam(required = false) String username,
+                                                                  @RequestParam(required = false) String email) {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "username or email is required");
+        }
+        Boolean usernameAvailable = username != null && !username.isBlank() ? userService.isUsernameAvailable(username) : null;
+        Boolean emailAvailable = email != null && !email.isBlank() ? userService.isEmailAvailable(email) : null;
+        return ResponseEntity.ok(new AvailabilityResponse(usernameAvailable, emailAvailable));
+    }
+
     @PostMapping("/login")
     @Operation(summary = "Authenticate user and get JWT token")
     public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
@@ -50,35 +69,62 @@ public class UserController {
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword())
         );
 
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-        final String jwt = jwtUtil.generateToken(userDetails);
         final UserDTO userDTO = userService.getUserByUsername(loginRequest.getUsername());
+        final String jwt = jwtUtil.generateToken(userDTO);
 
         return ResponseEntity.ok(new LoginResponse(jwt, "Bearer", userDTO));
     }
 
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the JWT token used for this request")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader) {
+        if (!authHeader.startsWith("Bearer ")) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Bearer token required");
+        }
+        tokenRevocationService.revoke(authHeader.substring(7));
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/profile")
     @Operation(summary = "Get current user profile")
-    public ResponseEntity<UserDTO> getProfile(@RequestHeader("Authorization") String token) {
-        String username = jwtUtil.extractUsername(token.substring(7));
-        UserDTO userDTO = userService.getUserByUsername(username);
+    public ResponseEntity<UserDTO> getProfile(@AuthenticationPrincipal AuthenticatedUser caller) {
+        UserDTO userDTO = userService.getUserByUsername(caller.getUsername());
         return ResponseEntity.ok(userDTO);
     }
 
     @PutMapping("/profile")
     @Operation(summary = "Update current user profile")
-    public ResponseEntity<UserDTO> updateProfile(@RequestHeader("Authorization") String token,
+    public ResponseEntity<UserDTO> updateProfile(@AuthenticationPrincipal AuthenticatedUser caller,
                                                  @Valid @RequestBody UserDTO userDTO) {
-        String username = jwtUtil.extractUsername(token.substring(7));
-        UserDTO currentUser = userService.getUserByUsername(username);
-        UserDTO updatedUser = userService.updateUser(currentUser.getId(), userDTO);
+        Long userId = caller.getId() != null
+                ? caller.getId()
+                : userService.getUserByUsername(caller.getUsername()).getId();
+        UserDTO updatedUser = userService.updateUser(userId, userDTO);
         return ResponseEntity.ok(updatedUser);
     }
 
+    @PostMapping("/internal/contacts")
+    @Operation(summary = "Get contact details for a batch of user ids (internal: SERVICE role, not routed by the gateway)")
+    public ResponseEntity<List<UserContactDTO>> getContacts(@Valid @RequestBody UserContactsRequest request) {
+        return ResponseEntity.ok(userService.getContacts(request.getUserIds()));
+    }
+
     @GetMapping
-    @Operation(summary = "Get all users (Admin only)")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Operation(summary = "List users page by page, ordered by id (Admin only)")
+    public ResponseEntity<UserPageResponse> getUsers(@RequestParam(required = false) Long afterId,
+                                                     @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return ResponseEntity.ok(userService.getUsersPage(afterId, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @Operation(summary = "Stream all users as newline-delimited JSON (Admin only)")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = userService::exportUsers;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 }
\ No newline at end of file
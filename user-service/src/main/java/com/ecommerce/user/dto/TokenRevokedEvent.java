@@ -0,0 +1,13 @@
+package com.ecommerce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenRevokedEvent {
+    private String jti;
+    private Long expiresAt;
+}
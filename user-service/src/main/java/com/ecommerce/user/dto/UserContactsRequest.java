@@ -0,0 +1,15 @@
+package com.ecommerce.user.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserContactsRequest {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@NotNull Long> userIds;
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserDTO> users;
+    private Long nextAfterId;
+    private boolean hasMore;
+}
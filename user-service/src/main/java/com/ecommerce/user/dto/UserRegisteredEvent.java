@@ -0,0 +1,14 @@
+package com.ecommerce.user.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRegisteredEvent {
+    private Long userId;
+    private String username;
+    private String email;
+}
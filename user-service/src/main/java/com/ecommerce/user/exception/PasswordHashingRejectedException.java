@@ -0,0 +1,19 @@
+package com.ecommerce.user.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+public class PasswordHashingRejectedException extends ResponseStatusException {
+
+    public PasswordHashingRejectedException() {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent logins, please retry shortly");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "1");
+        return headers;
+    }
+}
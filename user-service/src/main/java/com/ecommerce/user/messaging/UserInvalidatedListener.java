@@ -0,0 +1,25 @@
+package com.ecommerce.user.messaging;
+
+import com.ecommerce.user.dto.UserInvalidatedEvent;
+import com.ecommerce.user.service.UserProfileCache;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserInvalidatedListener {
+
+    private final UserProfileCache profileCache;
+
+    public UserInvalidatedListener(UserProfileCache profileCache) {
+        this.profileCache = profileCache;
+    }
+
+    @KafkaListener(topics = "user-invalidated", groupId = "user-service-${random.uuid}")
+    public void handleUserInvalidated(UserInvalidatedEvent event) {
+        try {
+            profileCache.invalidate(event.getUserId(), event.getUsername());
+        } catch (Exception e) {
+            System.err.println("Failed to invalidate cached user: " + event.getUserId());
+        }
+    }
+}
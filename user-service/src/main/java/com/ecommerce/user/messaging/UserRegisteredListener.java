@@ -0,0 +1,29 @@
+package com.ecommerce.user.messaging;
+
+import com.ecommerce.user.dto.UserRegisteredEvent;
+import com.ecommerce.user.service.UserAvailabilityIndex;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserRegisteredListener {
+
+    private final UserAvailabilityIndex availabilityIndex;
+
+    public UserRegisteredListener(UserAvailabilityIndex availabilityIndex) {
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    // Each replica keeps its own availability index, so every instance needs every registration.
+    // A fresh group would start at the latest offset and miss users registered between the index seed
+    // and partition assignment; reading from the start of the retained topic is idempotent.
+    @KafkaListener(topics = "user-registered", groupId = "user-service-${random.uuid}",
+            properties = "auto.offset.reset=earliest")
+    public void handleUserRegistered(UserRegisteredEvent event) {
+        try {
+            availabilityIndex.add(event.getUsername(), event.getEmail());
+        } catch (Exception e) {
+            System.err.println("Failed to index registered user: " + event.getUserId());
+        }
+    }
+}
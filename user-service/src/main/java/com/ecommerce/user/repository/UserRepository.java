@@ -1,10 +1,21 @@
 package com.ecommerce.user.repository;
 
+import com.ecommerce.user.dto.UserContactDTO;
+import com.ecommerce.user.dto.UserDTO;
 import com.ecommerce.user.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +23,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("select new com.ecommerce.user.dto.UserContactDTO(u.id, u.username, u.email, u.firstName, u.lastName) "
+            + "from User u where u.id in :ids")
+    List<UserContactDTO> findContactsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Constructor projections never select the password column and do not fill the persistence context
+    @Query("select new com.ecommerce.user.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, "
+            + "u.phone, u.role, u.createdAt, u.active) from User u where u.id > :afterId order by u.id")
+    List<UserDTO> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.ecommerce.user.dto.UserDTO(u.id, u.username, u.email, u.firstName, u.lastName, "
+            + "u.phone, u.role, u.createdAt, u.active) from User u order by u.id")
+    Stream<UserDTO> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.username as username, u.email as email from User u")
+    Stream<UserIdentifiers> streamIdentifiers();
+
+    interface UserIdentifiers {
+        String getUsername();
+        String getEmail();
+    }
 }
\ No newline at end of file
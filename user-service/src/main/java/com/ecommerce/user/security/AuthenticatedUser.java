@@ -0,0 +1,12 @@
+package com.ecommerce.user.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuthenticatedUser {
+    private Long id;
+    private String username;
+    private String role;
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.user.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Resolves the caller from the signed identity headers added by the api-gateway,
+ * so the JWT does not have to be parsed again in this service. Headers signed longer ago than
+ * gateway.identity.max-age are rejected, so a captured set cannot be replayed later.
+ */
+@Component
+public class GatewayIdentityResolver {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USERNAME_HEADER = "X-User-Name";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String ISSUED_AT_HEADER = "X-User-Issued-At";
+    public static final String SIGNATURE_HEADER = "X-User-Signature";
+
+    private final SecretKeySpec key;
+    private final long maxAgeMillis;
+
+    public GatewayIdentityResolver(@Value("${gateway.identity.secret}") String secret,
+                                   @Value("${gateway.identity.max-age:30s}") Duration maxAge) {
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.maxAgeMillis = maxAge.toMillis();
+    }
+
+    public AuthenticatedUser resolve(HttpServletRequest request) {
+        // Service identities carry no user id; the signature covers it as empty
+        String userId = request.getHeader(USER_ID_HEADER) != null ? request.getHeader(USER_ID_HEADER) : "";
+        String username = request.getHeader(USERNAME_HEADER);
+        String role = request.getHeader(USER_ROLE_HEADER);
+        String issuedAt = request.getHeader(ISSUED_AT_HEADER);
+        String signature = request.getHeader(SIGNATURE_HEADER);
+
+        if (username == null || username.isEmpty() || role == null || issuedAt == null
+                || signature == null || !MessageDigest.isEqual(sign(userId, username, role, issuedAt),
+                signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing or invalid gateway identity");
+        }
+        if (isStale(issuedAt)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Gateway identity has expired");
+        }
+
+        return new AuthenticatedUser(userId.isEmpty() ? null : Long.valueOf(userId), username, role);
+    }
+
+    private boolean isStale(String issuedAt) {
+        try {
+            // Allow the same margin in the future for clock skew between the gateway and this service
+            return Math.abs(System.currentTimeMillis() - Long.parseLong(issuedAt)) > maxAgeMillis;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private byte[] sign(String userId, String username, String role, String issuedAt) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            String payload = userId + "\n" + username + "\n" + role + "\n" + issuedAt;
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encode(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
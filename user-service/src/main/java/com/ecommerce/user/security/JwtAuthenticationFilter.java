@@ -0,0 +1,78 @@
+package com.ecommerce.user.security;
+
+import com.ecommerce.user.config.JwtUtil;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Authenticates requests from the gateway's signed identity headers, falling back to the bearer token only
+ * for callers that reach the service without going through the gateway. The gateway has already checked
+ * the token against the revocation list, so its headers take precedence over any token sent alongside them.
+ * The principal is an {@link AuthenticatedUser}, so no user lookup is needed to authenticate a request.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private final JwtUtil jwtUtil;
+    private final GatewayIdentityResolver identityResolver;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, GatewayIdentityResolver identityResolver) {
+        this.jwtUtil = jwtUtil;
+        this.identityResolver = identityResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            AuthenticatedUser principal = resolvePrincipal(request);
+            if (principal != null) {
+                List<SimpleGrantedAuthority> authorities = principal.getRole() != null && !principal.getRole().isEmpty()
+                        ? List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole()))
+                        : Collections.emptyList();
+                UsernamePasswordAuthenticationToken authentication =
+                        new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private AuthenticatedUser resolvePrincipal(HttpServletRequest request) {
+        if (request.getHeader(GatewayIdentityResolver.SIGNATURE_HEADER) != null) {
+            try {
+                return identityResolver.resolve(request);
+            } catch (ResponseStatusException e) {
+                return null;
+            }
+        }
+
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Claims claims = jwtUtil.validateAndGetClaims(authHeader.substring(7));
+            if (claims == null || claims.getSubject() == null) {
+                return null;
+            }
+            Object userId = claims.get("userId");
+            Object role = claims.get("role");
+            return new AuthenticatedUser(
+                    userId != null ? Long.valueOf(userId.toString()) : null,
+                    claims.getSubject(),
+                    role != null ? role.toString() : null);
+        }
+        return null;
+    }
+}
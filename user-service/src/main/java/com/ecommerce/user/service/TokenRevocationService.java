@@ -0,0 +1,41 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.config.JwtUtil;
+import com.ecommerce.user.dto.TokenRevokedEvent;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+public class TokenRevocationService {
+
+    private final JwtUtil jwtUtil;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public TokenRevocationService(JwtUtil jwtUtil, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.jwtUtil = jwtUtil;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Publishes the token's id so every gateway instance rejects it until it expires.
+     */
+    public void revoke(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+
+        if (claims.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token has no id and cannot be revoked");
+        }
+
+        TokenRevokedEvent event = new TokenRevokedEvent(claims.getId(), claims.getExpiration().getTime());
+        kafkaTemplate.send("token-revoked", claims.getId(), event);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over every username and email in use, compared case-insensitively like the database.
+ * A negative answer means the value is definitely free, so the database is only queried on a possible hit.
+ * Until seeding has finished every value is reported as possibly taken.
+ */
+@Component
+public class UserAvailabilityIndex {
+
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final Counter bloomNegative;
+    private final Counter bloomPositive;
+    private volatile boolean ready;
+
+    public UserAvailabilityIndex(UserRepository userRepository,
+                                 @Value("${users.availability.expected-insertions:1000000}") int expectedInsertions,
+                                 @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate,
+                                 MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.bloomNegative = meterRegistry.counter("user.availability.checks", "result", "bloom-negative");
+        this.bloomPositive = meterRegistry.counter("user.availability.checks", "result", "database");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void seed() {
+        try (Stream<UserRepository.UserIdentifiers> identifiers = userRepository.streamIdentifiers()) {
+            identifiers.forEach(user -> add(user.getUsername(), user.getEmail()));
+        }
+        ready = true;
+    }
+
+    public void add(String username, String email) {
+        if (username != null) {
+            usernames.add(normalize(username));
+        }
+        if (email != null) {
+            emails.add(normalize(email));
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        return check(usernames, username);
+    }
+
+    public boolean mightContainEmail(String email) {
+        return check(emails, email);
+    }
+
+    private boolean check(BloomFilter filter, String value) {
+        if (!ready || filter.mightContain(normalize(value))) {
+            bloomPositive.increment();
+            return true;
+        }
+        bloomNegative.increment();
+        return false;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bits;
+        private final int hashes;
+
+        private BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            int requested = (int) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.words = new AtomicLongArray((requested + 63) >>> 6);
+            this.bits = words.length() << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) requested / expectedInsertions * ln2));
+        }
+
+        void add(String value) {
+            int h1 = value.hashCode();
+            int h2 = secondaryHash(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                long mask = 1L << bit;
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            int h1 = value.hashCode();
+            int h2 = secondaryHash(value);
+            for (int i = 0; i < hashes; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int secondaryHash(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of user profiles, reachable by id and by username. Entries also expire after ttl
+ * as a backstop in case an invalidation from another replica is lost.
+ * <p>
+ * Loads take a {@link #stamp()} before reading the database and are dropped by {@link #put} if any
+ * invalidation happened in between, so a slow read cannot put a stale profile back after an update.
+ */
+@Component
+public class UserProfileCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> byId = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> idsByUsername = new HashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private long invalidations;
+
+    public UserProfileCache(@Value("${users.cache.max-entries:10000}") int maxEntries,
+                            @Value("${users.cache.ttl:10m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = meterRegistry.counter("user.profile.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("user.profile.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("user.profile.cache.evictions");
+        Gauge.builder("user.profile.cache.size", this, UserProfileCache::size).register(meterRegistry);
+    }
+
+    public synchronized UserDTO getById(Long id) {
+        return hitOrMiss(byId.get(id));
+    }
+
+    public synchronized UserDTO getByUsername(String username) {
+        Long id = idsByUsername.get(username);
+        return hitOrMiss(id != null ? byId.get(id) : null);
+    }
+
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    public synchronized void put(UserDTO user, long stamp) {
+        if (stamp != invalidations || user.getId() == null) {
+            return;
+        }
+        Entry previous = byId.put(user.getId(), new Entry(user, System.nanoTime() + ttlNanos));
+        if (previous != null && !previous.user.getUsername().equals(user.getUsername())) {
+            idsByUsername.remove(previous.user.getUsername());
+        }
+        idsByUsername.put(user.getUsername(), user.getId());
+
+        Iterator<Entry> eldest = byId.values().iterator();
+        while (byId.size() > maxEntries && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            eldest.remove();
+            idsByUsername.remove(evicted.user.getUsername());
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(Long id, String username) {
+        invalidations++;
+        Entry removed = id != null ? byId.remove(id) : null;
+        if (removed != null) {
+            idsByUsername.remove(removed.user.getUsername());
+        }
+        if (username != null) {
+            Long mappedId = idsByUsername.remove(username);
+            if (mappedId != null) {
+                byId.remove(mappedId);
+            }
+        }
+    }
+
+    private UserDTO hitOrMiss(Entry entry) {
+        if (entry == null || entry.expiresAtNanos - System.nanoTime() < 0) {
+            if (entry != null) {
+                byId.remove(entry.user.getId());
+                idsByUsername.remove(entry.user.getUsername());
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    private synchronized int size() {
+        return byId.size();
+    }
+
+    private static final class Entry {
+        private final UserDTO user;
+        private final long expiresAtNanos;
+
+        private Entry(UserDTO user, long expiresAtNanos) {
+            this.user = user;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -1,32 +1,70 @@
 package com.ecommerce.user.service;
 
 import com.ecommerce.user.dto.RegisterRequest;
+import com.ecommerce.user.dto.UserContactDTO;
 import com.ecommerce.user.dto.UserDTO;
+import com.ecommerce.user.dto.UserInvalidatedEvent;
+import com.ecommerce.user.dto.UserPageResponse;
+import com.ecommerce.user.dto.UserRegisteredEvent;
 import com.ecommerce.user.model.User;
 import com.ecommerce.user.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+    private static final int CONTACT_QUERY_CHUNK = 1000;
+    private static final int EXPORT_FLUSH_EVERY = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final UserAvailabilityIndex availabilityIndex;
+    private final UserProfileCache profileCache;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserService(UserRepository userRepository,
+                       PasswordEncoder passwordEncoder,
+                       UserAvailabilityIndex availabilityIndex,
+                       UserProfileCache profileCache,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.availabilityIndex = availabilityIndex;
+        this.profileCache = profileCache;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        return !availabilityIndex.mightContainUsername(username) || !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        return !availabilityIndex.mightContainEmail(email) || !userRepository.existsByEmail(email);
     }
 
     public UserDTO createUser(RegisterRequest registerRequest) {
-        if (userRepository.existsByUsername(registerRequest.getUsername())) {
+        if (!isUsernameAvailable(registerRequest.getUsername())) {
             throw new RuntimeException("Username is already taken");
         }
 
-        if (userRepository.existsByEmail(registerRequest.getEmail())) {
+        if (!isEmailAvailable(registerRequest.getEmail())) {
             throw new RuntimeException("Email is already in use");
         }
 
@@ -39,20 +77,59 @@ public class UserService {
         user.setPhone(registerRequest.getPhone());
         user.setRole(User.Role.CUSTOMER);
 
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // Registered concurrently, possibly on another replica whose event has not arrived yet
+            throw new RuntimeException("Username or email is already in use");
+        }
+
+        availabilityIndex.add(savedUser.getUsername(), savedUser.getEmail());
+        kafkaTemplate.send("user-registered", savedUser.getUsername(),
+                new UserRegisteredEvent(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail()));
         return UserDTO.fromEntity(savedUser);
     }
 
     public UserDTO getUserById(Long id) {
+        UserDTO cached = profileCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = profileCache.stamp();
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return UserDTO.fromEntity(user);
+        UserDTO userDTO = UserDTO.fromEntity(user);
+        profileCache.put(userDTO, stamp);
+        return userDTO;
     }
 
     public UserDTO getUserByUsername(String username) {
+        UserDTO cached = profileCache.getByUsername(username);
+        if (cached != null) {
+            return cached;
+        }
+
+        long stamp = profileCache.stamp();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return UserDTO.fromEntity(user);
+        UserDTO userDTO = UserDTO.fromEntity(user);
+        profileCache.put(userDTO, stamp);
+        return userDTO;
+    }
+
+    /**
+     * Looks up contact details for many users at once. Ids are de-duplicated and queried in chunks
+     * so each IN list stays a reasonable size; unknown ids are simply absent from the result.
+     */
+    public List<UserContactDTO> getContacts(List<Long> userIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        List<UserContactDTO> contacts = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CONTACT_QUERY_CHUNK) {
+            contacts.addAll(userRepository.findContactsByIdIn(ids.subList(from, Math.min(from + CONTACT_QUERY_CHUNK, ids.size()))));
+        }
+        return contacts;
     }
 
     public UserDTO updateUser(Long id, UserDTO userDTO) {
@@ -64,18 +141,54 @@ public class UserService {
         user.setPhone(userDTO.getPhone());
 
         User updatedUser = userRepository.save(user);
+        invalidate(updatedUser);
         return UserDTO.fromEntity(updatedUser);
     }
 
-    public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserDTO::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * Returns up to limit users with an id greater than afterId, in id order. Pass the returned
+     * nextAfterId to fetch the following page; unlike offsets this stays cheap deep into the table.
+     */
+    public UserPageResponse getUsersPage(Long afterId, int limit) {
+        List<UserDTO> users = userRepository.findPageAfter(afterId != null ? afterId : 0L, PageRequest.of(0, limit + 1));
+        boolean hasMore = users.size() > limit;
+        if (hasMore) {
+            users = users.subList(0, limit);
+        }
+        Long nextAfterId = users.isEmpty() ? afterId : users.get(users.size() - 1).getId();
+        return new UserPageResponse(users, nextAfterId, hasMore);
+    }
+
+    /**
+     * Writes every user as one JSON object per line, reading rows from a forward-only cursor
+     * so memory use does not grow with the table.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream outputStream) throws IOException {
+        try (Stream<UserDTO> users = userRepository.streamAll()) {
+            Iterator<UserDTO> iterator = users.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+                if (++written % EXPORT_FLUSH_EVERY == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        }
     }
 
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         userRepository.delete(user);
+        invalidate(user);
+    }
+
+    private void invalidate(User user) {
+        profileCache.invalidate(user.getId(), user.getUsername());
+        kafkaTemplate.send("user-invalidated", user.getUsername(),
+                new UserInvalidatedEvent(user.getId(), user.getUsername()));
     }
 }
\ No newline at end of file